@@ -0,0 +1,125 @@
+package com.epam.health.tool.authentication.http;
+
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.health.tool.authentication.kerberos.KerberosAuthenticationClient;
+import com.epam.health.tool.dao.cluster.ClusterDao;
+import com.epam.health.tool.model.ClusterEntity;
+import com.epam.util.common.StringUtils;
+import com.epam.util.http.AddressAvailabilityProbe;
+import com.epam.util.http.HttpTimeouts;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.ietf.jgss.GSSContext;
+import org.ietf.jgss.GSSException;
+import org.ietf.jgss.GSSManager;
+import org.ietf.jgss.GSSName;
+import org.ietf.jgss.Oid;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking counterpart of HttpAuthenticationClient. Requests run on the netty event loop, so many concurrent
+ * REST probes need only a few threads. Basic credentials are sent preemptively, for SPNEGO a Negotiate token
+ * is created under the cluster kerberos subject on a separate scheduler, as login and ticket requests block.
+ */
+@Component
+@DependsOn( "httpClientConfigurer" )
+public class AsyncHttpAuthenticationClient implements InitializingBean {
+    private static final String SPNEGO_OID = "1.3.6.1.5.5.2";
+
+    @Autowired
+    private ClusterDao clusterDao;
+    @Autowired
+    private KerberosAuthenticationClient kerberosAuthenticationClient;
+
+    private final Scheduler kerberosScheduler = Schedulers.newElastic( "async-http-kerberos", 60, true );
+    private WebClient webClient;
+
+    //Timeouts are configured by HttpClientConfigurer, which is initialized before this client
+    @Override
+    public void afterPropertiesSet() {
+        webClient = createWebClient( HttpTimeouts.getDefault() );
+    }
+
+    public Mono<String> makeAuthenticatedRequest( ClusterEntity clusterEntity, String url, boolean useSpnego ) {
+        Mono<String> authorizationHeader = useSpnego && clusterEntity.isSecured() ? createNegotiateHeader( clusterEntity, url )
+                : Mono.just( createBasicHeader( clusterEntity ) );
+
+        return authorizationHeader.flatMap( authorization -> webClient.get().uri( url )
+                .header( HttpHeaders.AUTHORIZATION, authorization )
+                .exchange()
+                //Body is returned whatever the status is, like the blocking client does
+                .flatMap( clientResponse -> clientResponse.bodyToMono( String.class ).defaultIfEmpty( StringUtils.EMPTY ) ) )
+                .timeout( Duration.ofMillis( HttpTimeouts.getDefault().getRequestTimeoutMillis() ) )
+                .doOnError( ex -> AddressAvailabilityProbe.get().invalidate( url ) )
+                .onErrorMap( ex -> !( ex instanceof AuthenticationRequestException ),
+                        ex -> new AuthenticationRequestException( "Request to " + url + " failed", ex ) );
+    }
+
+    public Mono<String> makeAuthenticatedRequest( String clusterName, String url ) {
+        return makeAuthenticatedRequest( clusterName, url, true );
+    }
+
+    public Mono<String> makeAuthenticatedRequest( String clusterName, String url, boolean useSpnego ) {
+        return Mono.fromCallable( () -> clusterDao.findByClusterName( clusterName ) ).subscribeOn( kerberosScheduler )
+                .flatMap( clusterEntity -> makeAuthenticatedRequest( clusterEntity, url, useSpnego ) );
+    }
+
+    public CompletableFuture<String> makeAuthenticatedRequestAsync( String clusterName, String url ) {
+        return makeAuthenticatedRequest( clusterName, url ).toFuture();
+    }
+
+    private String createBasicHeader( ClusterEntity clusterEntity ) {
+        String credentials = clusterEntity.getHttp().getUsername() + ":" + clusterEntity.getHttp().getPassword();
+
+        return "Basic " + Base64.getEncoder().encodeToString( credentials.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private Mono<String> createNegotiateHeader( ClusterEntity clusterEntity, String url ) {
+        return Mono.fromCallable( () -> kerberosAuthenticationClient.makeDoAsAction( clusterEntity,
+                () -> "Negotiate " + Base64.getEncoder().encodeToString( createSpnegoToken( URI.create( url ).getHost() ) ) ) )
+                .subscribeOn( kerberosScheduler );
+    }
+
+    //Same service principal as the blocking client, HTTP@ canonical host name without port
+    private byte[] createSpnegoToken( String host ) throws GSSException, java.net.UnknownHostException {
+        GSSManager gssManager = GSSManager.getInstance();
+        GSSName serverName = gssManager.createName( "HTTP@" + InetAddress.getByName( host ).getCanonicalHostName(),
+                GSSName.NT_HOSTBASED_SERVICE );
+        GSSContext gssContext = gssManager.createContext( serverName, new Oid( SPNEGO_OID ), null, GSSContext.DEFAULT_LIFETIME );
+        try {
+            gssContext.requestCredDeleg( false );
+
+            return gssContext.initSecContext( new byte[ 0 ], 0, 0 );
+        } finally {
+            gssContext.dispose();
+        }
+    }
+
+    private WebClient createWebClient( HttpTimeouts httpTimeouts ) {
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector( options -> options
+                .sslSupport( sslContextBuilder -> sslContextBuilder.trustManager( InsecureTrustManagerFactory.INSTANCE ) )
+                .option( ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpTimeouts.getConnectTimeoutMillis() )
+                .afterNettyContextInit( nettyContext -> nettyContext.addHandlerLast(
+                        new ReadTimeoutHandler( httpTimeouts.getReadTimeoutMillis(), TimeUnit.MILLISECONDS ) ) ) );
+
+        return WebClient.builder().clientConnector( connector ).build();
+    }
+}
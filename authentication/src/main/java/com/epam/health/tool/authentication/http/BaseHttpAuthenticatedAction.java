@@ -1,7 +1,9 @@
 package com.epam.health.tool.authentication.http;
 
 import com.epam.util.common.CommonUtilException;
+import com.epam.util.http.HttpClientKey;
 import com.epam.util.http.HttpRequestExecutor;
+import com.epam.util.http.IHttpResponseReader;
 import com.epam.util.http.header.IHeaderCreator;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.*;
@@ -24,6 +26,7 @@ public class BaseHttpAuthenticatedAction {
     private String username;
     private String password;
     private boolean useSpnego;
+    private String clientGroup;
 
     private BaseHttpAuthenticatedAction() {
         this.useSpnego = false;
@@ -64,12 +67,32 @@ public class BaseHttpAuthenticatedAction {
         return this;
     }
 
+    //Requests of one group (cluster) and auth mode reuse a pooled client and its connections
+    public BaseHttpAuthenticatedAction withClientGroup( String clientGroup ) {
+        this.clientGroup = clientGroup;
+
+        return this;
+    }
+
     public String makeAuthenticatedRequest( String url ) throws CommonUtilException {
-        return HttpRequestExecutor.get().setAuthSchemes( createAuthShemesList() )
+        return createRequestExecutor( url ).executeUrlRequest( url );
+    }
+
+    public <T> T makeAuthenticatedRequest( String url, IHttpResponseReader<T> responseReader ) throws CommonUtilException {
+        return createRequestExecutor( url ).executeUrlRequest( url, responseReader );
+    }
+
+    private HttpRequestExecutor createRequestExecutor( String url ) {
+        return HttpRequestExecutor.get().setClientKey( createClientKey() )
+                .setAuthSchemes( createAuthShemesList() )
                 .setCredentialsProvider( createHttpCredentialsProvider() )
                 .setAuthCache( generateAuthCache( extractHostFromUrlString( url ) ) )
-                .setHeader( generateAuthHeader() )
-                .executeUrlRequest( url );
+                .setHeader( generateAuthHeader() );
+    }
+
+    private HttpClientKey createClientKey() {
+        return clientGroup != null ? new HttpClientKey( clientGroup, useSpnego ? AuthSchemes.SPNEGO : AuthSchemes.BASIC, username )
+                : null;
     }
 
     private CredentialsProvider createHttpCredentialsProvider(  ) {
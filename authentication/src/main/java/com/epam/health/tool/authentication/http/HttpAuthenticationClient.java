@@ -6,6 +6,9 @@ import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.model.ClusterEntity;
 import com.epam.util.common.CommonUtilException;
+import com.epam.util.http.AddressAvailabilityProbe;
+import com.epam.util.http.HttpClientPool;
+import com.epam.util.http.IHttpResponseReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -17,10 +20,15 @@ public class HttpAuthenticationClient {
     private ClusterDao clusterDao;
     @Autowired
     private KerberosAuthenticationClient kerberosAuthenticationClient;
+    @Autowired
+    private HttpResponseCache httpResponseCache;
 
+    //Identical concurrent requests share one response
     public String makeAuthenticatedRequest(ClusterEntity clusterEntity, String url, boolean useSpnego) throws AuthenticationRequestException {
-        return isUsingSpnego( useSpnego, clusterEntity.isSecured() ) ? makeDoAsRequest( clusterEntity, url )
-                : makeSimpleRequest( clusterEntity, url );
+        boolean spnego = isUsingSpnego( useSpnego, clusterEntity.isSecured() );
+
+        return httpResponseCache.getOrRequest( clusterEntity.getClusterName(), url, spnego, clusterEntity.getHttp().getUsername(),
+                () -> spnego ? makeDoAsRequest( clusterEntity, url ) : makeSimpleRequest( clusterEntity, url ) );
     }
 
     public String makeAuthenticatedRequest( String clusterName, String url ) throws AuthenticationRequestException {
@@ -31,6 +39,25 @@ public class HttpAuthenticationClient {
         return makeAuthenticatedRequest( getClusterEntity( clusterName ), url, useSpnego );
     }
 
+    //Response is read as a stream and not shared with concurrent identical requests
+    public <T> T makeAuthenticatedRequest( ClusterEntity clusterEntity, String url, boolean useSpnego, IHttpResponseReader<T> responseReader )
+            throws AuthenticationRequestException {
+        return isUsingSpnego( useSpnego, clusterEntity.isSecured() )
+                ? kerberosAuthenticationClient.makeDoAsAction( clusterEntity, () -> makeSimpleRequest( clusterEntity, url, true, responseReader ) )
+                : makeSimpleRequest( clusterEntity, url, false, responseReader );
+    }
+
+    public <T> T makeAuthenticatedRequest( String clusterName, String url, boolean useSpnego, IHttpResponseReader<T> responseReader )
+            throws AuthenticationRequestException {
+        return makeAuthenticatedRequest( getClusterEntity( clusterName ), url, useSpnego, responseReader );
+    }
+
+    //Pooled clients keep credentials of the cluster, they are rebuilt on the next request
+    public void invalidateClients( String clusterName ) {
+        HttpClientPool.get().invalidate( clusterName );
+        httpResponseCache.invalidate( clusterName );
+    }
+
     private boolean isUsingSpnego( boolean useSpnego, boolean secureCluster ) {
         return useSpnego && secureCluster;
     }
@@ -49,13 +76,33 @@ public class HttpAuthenticationClient {
 
     private String makeSimpleRequest( ClusterEntity clusterEntity, String url, boolean useSpnego ) throws AuthenticationRequestException {
         try {
-            return BaseHttpAuthenticatedAction.get()
-                    .withUsername( clusterEntity.getHttp().getUsername() )
-                    .withPassword( clusterEntity.getHttp().getPassword() )
-                    .withSpnego( useSpnego )
-                    .makeAuthenticatedRequest( url );
+            return createHttpAuthenticatedAction( clusterEntity, useSpnego ).makeAuthenticatedRequest( url );
+        } catch (CommonUtilException e) {
+            throw createRequestException( url, e );
+        }
+    }
+
+    private <T> T makeSimpleRequest( ClusterEntity clusterEntity, String url, boolean useSpnego, IHttpResponseReader<T> responseReader )
+            throws AuthenticationRequestException {
+        try {
+            return createHttpAuthenticatedAction( clusterEntity, useSpnego ).makeAuthenticatedRequest( url, responseReader );
         } catch (CommonUtilException e) {
-            throw new AuthenticationRequestException( e );
+            throw createRequestException( url, e );
         }
     }
+
+    private BaseHttpAuthenticatedAction createHttpAuthenticatedAction( ClusterEntity clusterEntity, boolean useSpnego ) {
+        return BaseHttpAuthenticatedAction.get()
+                .withUsername( clusterEntity.getHttp().getUsername() )
+                .withPassword( clusterEntity.getHttp().getPassword() )
+                .withSpnego( useSpnego )
+                .withClientGroup( clusterEntity.getClusterName() );
+    }
+
+    //Address may be down, it is probed again on the next lookup
+    private AuthenticationRequestException createRequestException( String url, CommonUtilException e ) {
+        AddressAvailabilityProbe.get().invalidate( url );
+
+        return new AuthenticationRequestException( e );
+    }
 }
@@ -0,0 +1,51 @@
+package com.epam.health.tool.authentication.http;
+
+import com.epam.util.http.AddressAvailabilityProbe;
+import com.epam.util.http.HttpClientPool;
+import com.epam.util.http.HttpTimeouts;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies default http timeouts to every request made through HttpRequestExecutor and connection limits
+ * of the pooled per-cluster clients, and settings of the web address probe.
+ */
+@Component
+public class HttpClientConfigurer implements InitializingBean {
+    @Value( "${health.tool.http.connect-timeout-seconds:10}" )
+    private long connectTimeoutSeconds = 10;
+    @Value( "${health.tool.http.read-timeout-seconds:60}" )
+    private long readTimeoutSeconds = 60;
+    @Value( "${health.tool.http.request-timeout-seconds:120}" )
+    private long requestTimeoutSeconds = 120;
+    @Value( "${health.tool.http.pool.max-per-route:4}" )
+    private int maxConnectionsPerRoute = 4;
+    @Value( "${health.tool.http.pool.max-total:20}" )
+    private int maxConnectionsTotal = 20;
+    @Value( "${health.tool.http.pool.keep-alive-seconds:30}" )
+    private long keepAliveSeconds = 30;
+    @Value( "${health.tool.http.pool.idle-connection-seconds:60}" )
+    private long idleConnectionSeconds = 60;
+    @Value( "${health.tool.http.pool.idle-client-seconds:600}" )
+    private long idleClientSeconds = 600;
+    @Value( "${health.tool.http.probe.connect-timeout-millis:2000}" )
+    private long probeConnectTimeoutMillis = 2000;
+    @Value( "${health.tool.http.probe.available-ttl-seconds:60}" )
+    private long probeAvailableTtlSeconds = 60;
+    @Value( "${health.tool.http.probe.unavailable-ttl-seconds:10}" )
+    private long probeUnavailableTtlSeconds = 10;
+
+    @Override
+    public void afterPropertiesSet() {
+        HttpTimeouts.setDefault( new HttpTimeouts( TimeUnit.SECONDS.toMillis( connectTimeoutSeconds ),
+                TimeUnit.SECONDS.toMillis( readTimeoutSeconds ), TimeUnit.SECONDS.toMillis( requestTimeoutSeconds ) ) );
+        HttpClientPool.get().setMaxConnections( maxConnectionsPerRoute, maxConnectionsTotal );
+        HttpClientPool.get().setKeepAlive( keepAliveSeconds, TimeUnit.SECONDS );
+        HttpClientPool.get().setIdleTimeouts( idleConnectionSeconds, idleClientSeconds, TimeUnit.SECONDS );
+        AddressAvailabilityProbe.get().setConnectTimeout( probeConnectTimeoutMillis, TimeUnit.MILLISECONDS );
+        AddressAvailabilityProbe.get().setTtl( probeAvailableTtlSeconds, probeUnavailableTtlSeconds, TimeUnit.SECONDS );
+    }
+}
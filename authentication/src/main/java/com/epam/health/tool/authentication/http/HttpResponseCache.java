@@ -0,0 +1,176 @@
+package com.epam.health.tool.authentication.http;
+
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.util.common.StringUtils;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Coalesces identical concurrent GET requests per (cluster, url, auth mode, user), so actions of one health check
+ * asking the same endpoint share one in-flight response. By default a response is dropped as soon as it is handed
+ * to the waiting callers, endpoints with a configured TTL keep it for a short time.
+ * TTLs are given as comma separated regexp:seconds pairs, the regexp is searched in the url.
+ */
+@Component
+public class HttpResponseCache implements InitializingBean {
+    private final static Logger logger = Logger.getLogger( HttpResponseCache.class );
+    private static final int MAX_ENTRIES = 256;
+    private static final char URL_TTL_SEPARATOR = ':';
+
+    //E.g. /configurations\?type=:30,/jmx\?:5, empty to keep responses only while they are in flight
+    @Value( "${health.tool.http.response-cache.url-ttls:}" )
+    private String configuredUrlTtls = StringUtils.EMPTY;
+
+    private final Map<Pattern, Long> urlTtls = new LinkedHashMap<>();
+    private final Map<RequestKey, CachedResponse> cache = new LinkedHashMap<RequestKey, CachedResponse>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<RequestKey, CachedResponse> eldest ) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public void afterPropertiesSet() {
+        Arrays.stream( configuredUrlTtls.split( "," ) ).map( String::trim ).filter( urlTtl -> !urlTtl.isEmpty() )
+                .forEach( this::applyUrlTtl );
+    }
+
+    public String getOrRequest( String clusterName, String url, boolean useSpnego, String username, IHttpRequestCall requestCall )
+            throws AuthenticationRequestException {
+        RequestKey requestKey = new RequestKey( clusterName, url, useSpnego, username );
+        CachedResponse cachedResponse;
+        boolean owner = false;
+        synchronized ( cache ) {
+            cachedResponse = cache.get( requestKey );
+            if ( cachedResponse == null || cachedResponse.isExpired() ) {
+                cachedResponse = new CachedResponse();
+                cache.put( requestKey, cachedResponse );
+                owner = true;
+            }
+        }
+
+        if ( owner ) {
+            requestAndComplete( requestKey, cachedResponse, requestCall, getTtlMillis( url ) );
+        }
+
+        return awaitResponse( cachedResponse );
+    }
+
+    public void setUrlTtl( String urlRegexp, long ttl, TimeUnit timeUnit ) {
+        synchronized ( urlTtls ) {
+            urlTtls.put( Pattern.compile( urlRegexp ), timeUnit.toMillis( ttl ) );
+        }
+    }
+
+    public void invalidate( String clusterName ) {
+        synchronized ( cache ) {
+            cache.keySet().removeIf( requestKey -> requestKey.clusterName.equals( clusterName ) );
+        }
+    }
+
+    private void requestAndComplete( RequestKey requestKey, CachedResponse cachedResponse, IHttpRequestCall requestCall, long ttlMillis ) {
+        try {
+            String response = requestCall.request();
+            cachedResponse.expiresAt = System.currentTimeMillis() + ttlMillis;
+            if ( ttlMillis <= 0 ) {
+                synchronized ( cache ) {
+                    cache.remove( requestKey, cachedResponse );
+                }
+            }
+            cachedResponse.response.complete( response );
+        } catch ( Throwable ex ) {
+            //Failures are not cached, waiting callers are released on any failure of the request
+            synchronized ( cache ) {
+                cache.remove( requestKey, cachedResponse );
+            }
+            cachedResponse.response.completeExceptionally( ex );
+        }
+    }
+
+    private void applyUrlTtl( String urlTtl ) {
+        int separatorIndex = urlTtl.lastIndexOf( URL_TTL_SEPARATOR );
+        try {
+            setUrlTtl( urlTtl.substring( 0, separatorIndex ).trim(), Long.parseLong( urlTtl.substring( separatorIndex + 1 ).trim() ), TimeUnit.SECONDS );
+        } catch ( IndexOutOfBoundsException | IllegalArgumentException ex ) {
+            logger.error( "Invalid http response cache ttl " + urlTtl + ", expected regexp:seconds" );
+        }
+    }
+
+    private String awaitResponse( CachedResponse cachedResponse ) throws AuthenticationRequestException {
+        try {
+            return cachedResponse.response.join();
+        } catch ( CompletionException ex ) {
+            if ( ex.getCause() instanceof AuthenticationRequestException ) {
+                throw (AuthenticationRequestException) ex.getCause();
+            }
+
+            throw new AuthenticationRequestException( ex.getCause() );
+        }
+    }
+
+    private long getTtlMillis( String url ) {
+        synchronized ( urlTtls ) {
+            return urlTtls.entrySet().stream().filter( urlTtl -> urlTtl.getKey().matcher( url ).find() )
+                    .map( Map.Entry::getValue ).findFirst().orElse( 0L );
+        }
+    }
+
+    @FunctionalInterface
+    public interface IHttpRequestCall {
+        String request() throws AuthenticationRequestException;
+    }
+
+    private static class CachedResponse {
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private static class RequestKey {
+        private final String clusterName;
+        private final String url;
+        private final boolean useSpnego;
+        private final String username;
+
+        private RequestKey( String clusterName, String url, boolean useSpnego, String username ) {
+            this.clusterName = clusterName;
+            this.url = url;
+            this.useSpnego = useSpnego;
+            this.username = username;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+            RequestKey that = (RequestKey) o;
+            return useSpnego == that.useSpnego &&
+                    Objects.equals( clusterName, that.clusterName ) &&
+                    Objects.equals( url, that.url ) &&
+                    Objects.equals( username, that.username );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( clusterName, url, useSpnego, username );
+        }
+    }
+}
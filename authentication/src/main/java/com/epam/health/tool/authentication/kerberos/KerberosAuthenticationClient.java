@@ -7,21 +7,35 @@ import com.epam.health.tool.context.holder.SubjectContextHolder;
 import com.epam.health.tool.facade.context.IApplicationContext;
 import com.epam.health.tool.model.ClusterEntity;
 import com.epam.util.common.CommonUtilException;
-import com.epam.util.common.file.DownloadedFileWrapper;
-import com.epam.util.common.file.FileCommonUtil;
 import com.epam.util.kerberos.HadoopKerberosUtil;
+import com.epam.util.kerberos.Krb5ConfUtil;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import javax.security.auth.Subject;
+import javax.security.auth.kerberos.KerberosTicket;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Runs actions as the kerberos user of a cluster. Subjects are cached per cluster and logged in again
+ * ahead of TGT expiry, only logins of one cluster are serialized, actions run in parallel.
+ * krb5.conf of a cluster is downloaded again only after krb5 max age or a failed login, the JVM uses a merged config of all clusters.
+ */
 @Component
 @Scope( "singleton" )
 public class KerberosAuthenticationClient {
@@ -30,77 +44,154 @@ public class KerberosAuthenticationClient {
 
     @Autowired
     private IApplicationContext applicationContext;
-    private ReentrantLock lock = new ReentrantLock();
+    @Value( "${health.tool.kerberos.renew-ahead-seconds:600}" )
+    private long renewAheadSeconds = 600;
+    @Value( "${health.tool.kerberos.krb5-max-age-hours:24}" )
+    private long krb5MaxAgeHours = 24;
+
+    private final Map<String, ReentrantLock> clusterLocks = new ConcurrentHashMap<>();
+    //krb5 config and hadoop login user are JVM wide, logins of different clusters still go one by one
+    private final Object loginLock = new Object();
+    //Guarded by loginLock, configs of earlier logged in clusters win on merge
+    private final Map<String, String> krb5Configs = new LinkedHashMap<>();
+    private String mergedKrb5Config;
     private static final Logger logger = Logger.getLogger( KerberosAuthenticationClient.class );
     private static final String KERBEROS_SUBJECT_CACHE = "KERBEROS_SUBJECT_CACHE";
+    private static final String TGT_SERVER_PREFIX = "krbtgt/";
 
     public <T> T makeDoAsAction( ClusterEntity clusterEntity, PrivilegedExceptionAction<T> action ) throws AuthenticationRequestException {
-        lock.lock();
         try {
             return Subject.doAs( getKerberosSubject( clusterEntity ), action );
         } catch (PrivilegedActionException e) {
             throw new AuthenticationRequestException( e );
         }
-        finally {
-            lock.unlock();
-        }
     }
 
     private Subject getKerberosSubject( ClusterEntity clusterEntity ) throws AuthenticationRequestException {
         Subject subject = getSubjectFromCache( clusterEntity.getClusterName() );
-
-        if ( subject != null ) {
-            logger.info( "Use subject from cache for cluster - ".concat( clusterEntity.getClusterName() ) );
+        if ( isSubjectValid( subject, renewAheadSeconds ) ) {
+            return subject;
         }
-        else {
-            //Remove other kerberos subjects
-            this.applicationContext.removeAllByMinorKey( KERBEROS_SUBJECT_CACHE );
-            subject = createKerberosSubject( clusterEntity );
-            if ( subject == null ) {
-                throw new AuthenticationRequestException( "Can't create kerberos subject for cluster - " + clusterEntity.getClusterName() );
+
+        ReentrantLock clusterLock = clusterLocks.computeIfAbsent( clusterEntity.getClusterName(), clusterName -> new ReentrantLock() );
+        clusterLock.lock();
+        try {
+            subject = getSubjectFromCache( clusterEntity.getClusterName() );
+            if ( isSubjectValid( subject, renewAheadSeconds ) ) {
+                return subject;
             }
-            else {
-                this.applicationContext.addToContext( clusterEntity.getClusterName(), KERBEROS_SUBJECT_CACHE,
-                        SubjectContextHolder.class, new SubjectContextHolder( subject ) );
+
+            Subject newSubject = createKerberosSubject( clusterEntity );
+            this.applicationContext.addToContext( clusterEntity.getClusterName(), KERBEROS_SUBJECT_CACHE,
+                    SubjectContextHolder.class, new SubjectContextHolder( newSubject ) );
+            logger.info( "Kerberos subject for cluster - " + clusterEntity.getClusterName() + " valid till " + getTgtEndTime( newSubject ) );
+
+            return newSubject;
+        } catch ( AuthenticationRequestException ex ) {
+            //Renewal ahead of expiry failed, the current TGT is still usable
+            if ( isSubjectValid( subject, 0 ) ) {
+                logger.warn( "Can't renew kerberos subject for cluster - " + clusterEntity.getClusterName() + " - " + ex.getMessage() );
+                return subject;
             }
-        }
 
-        return subject;
+            throw ex;
+        } finally {
+            clusterLock.unlock();
+        }
     }
 
     private Subject getSubjectFromCache(String clusterName ) {
         return this.applicationContext.getFromContext( clusterName, KERBEROS_SUBJECT_CACHE, SubjectContextHolder.class, null );
     }
 
+    //Subject without a TGT is kept as before
+    private boolean isSubjectValid( Subject subject, long aheadSeconds ) {
+        if ( subject == null ) {
+            return false;
+        }
+
+        Date tgtEndTime = getTgtEndTime( subject );
+        return tgtEndTime == null || tgtEndTime.getTime() - TimeUnit.SECONDS.toMillis( aheadSeconds ) > System.currentTimeMillis();
+    }
+
+    private Date getTgtEndTime( Subject subject ) {
+        return subject.getPrivateCredentials( KerberosTicket.class ).stream()
+                .filter( ticket -> ticket.getServer().getName().startsWith( TGT_SERVER_PREFIX ) )
+                .map( KerberosTicket::getEndTime ).findFirst().orElse( null );
+    }
+
     private Subject createKerberosSubject(ClusterEntity clusterEntity ) throws AuthenticationRequestException {
-        try {
-            System.setProperty( "java.security.krb5.conf", downloadAndSaveKrb5FileIfNotExists( clusterEntity ) );
-            return HadoopKerberosUtil.doLoginWithPrincipalAndPassword(clusterEntity.getKerberos().getUsername(), clusterEntity.getKerberos().getPassword()).getSubject();
-        } catch (CommonUtilException e) {
-            throw new AuthenticationRequestException( e );
+        synchronized ( loginLock ) {
+            String krb5Config = getKrb5Config( clusterEntity );
+            try {
+                System.setProperty( "java.security.krb5.conf", saveMergedKrb5Config() );
+                return HadoopKerberosUtil.doLoginWithPrincipalAndPassword( getPrincipal( clusterEntity, krb5Config ),
+                        clusterEntity.getKerberos().getPassword() ).getSubject();
+            } catch (CommonUtilException e) {
+                //krb5.conf could be changed on the cluster, it is downloaded again with the next login
+                new File( createPathToSaveKrb5( clusterEntity.getClusterName() ) ).delete();
+                throw new AuthenticationRequestException( e );
+            }
+        }
+    }
+
+    //Principal without realm gets the default realm of its own cluster, not the one of the merged config
+    private String getPrincipal( ClusterEntity clusterEntity, String krb5Config ) {
+        String principal = clusterEntity.getKerberos().getUsername();
+        String defaultRealm = Krb5ConfUtil.getDefaultRealm( krb5Config );
+
+        return principal.contains( "@" ) || defaultRealm == null ? principal : principal + "@" + defaultRealm;
+    }
+
+    private String getKrb5Config( ClusterEntity clusterEntity ) throws AuthenticationRequestException {
+        String pathToKrb5 = createPathToSaveKrb5( clusterEntity.getClusterName() );
+        if ( isKrb5FileOutdated( new File( pathToKrb5 ) ) ) {
+            downloadKrb5File( clusterEntity, pathToKrb5 );
+            krb5Configs.remove( clusterEntity.getClusterName() );
         }
+
+        String krb5Config = krb5Configs.get( clusterEntity.getClusterName() );
+        if ( krb5Config == null ) {
+            krb5Config = readFile( pathToKrb5 );
+            krb5Configs.put( clusterEntity.getClusterName(), krb5Config );
+        }
+
+        return krb5Config;
     }
 
-    private String downloadAndSaveKrb5FileIfNotExists( ClusterEntity clusterEntity ) throws AuthenticationRequestException {
-        DownloadedFileWrapper downloadedFileWrapper = sshAuthenticationClient.downloadFile( clusterEntity, "/etc/krb5.conf" );
+    private boolean isKrb5FileOutdated( File krb5File ) {
+        return !krb5File.exists() || System.currentTimeMillis() - krb5File.lastModified() > TimeUnit.HOURS.toMillis( krb5MaxAgeHours );
+    }
 
-        if ( downloadedFileWrapper.isEmpty() ) {
-            throw new RuntimeException( "Can't download krb5 file from " + clusterEntity.getHost() );
+    private void downloadKrb5File( ClusterEntity clusterEntity, String pathToSaveKrb5 ) throws AuthenticationRequestException {
+        if ( sshAuthenticationClient.downloadFileTo( clusterEntity, "/etc/krb5.conf", pathToSaveKrb5 ) < 1 ) {
+            throw new AuthenticationRequestException( "Can't download krb5 file from " + clusterEntity.getHost() );
         }
+    }
 
-        try {
-            if ( !downloadedFileWrapper.isByteContentEmpty() ) {
-                FileCommonUtil.writeByteArrayToFile( createPathToSaveKrb5(clusterEntity.getClusterName()), downloadedFileWrapper.getByteFileContent() );
-            }
-            else if ( !downloadedFileWrapper.isStringContentEmpty() ) {
-                FileCommonUtil.writeStringToFile( createPathToSaveKrb5( clusterEntity.getClusterName() ), downloadedFileWrapper.getStringFileContent() );
+    //Written only when configs of the clusters change
+    private String saveMergedKrb5Config() throws AuthenticationRequestException {
+        String pathToMergedKrb5 = getRootUtilityFolder() + File.separator + "clusters" + File.separator + "krb5.conf";
+        String krb5Config = Krb5ConfUtil.merge( krb5Configs.values() );
+
+        if ( !krb5Config.equals( mergedKrb5Config ) || !new File( pathToMergedKrb5 ).exists() ) {
+            try {
+                Files.write( Paths.get( pathToMergedKrb5 ), krb5Config.getBytes( StandardCharsets.UTF_8 ) );
+                mergedKrb5Config = krb5Config;
+            } catch ( IOException e ) {
+                throw new AuthenticationRequestException( e );
             }
         }
-        catch ( CommonUtilException e ) {
+
+        return pathToMergedKrb5;
+    }
+
+    private String readFile( String path ) throws AuthenticationRequestException {
+        try {
+            return new String( Files.readAllBytes( Paths.get( path ) ), StandardCharsets.UTF_8 );
+        } catch ( IOException e ) {
             throw new AuthenticationRequestException( e );
         }
-
-        return createPathToSaveKrb5( clusterEntity.getClusterName() );
     }
 
     private String createPathToSaveKrb5( String clusterName ) throws AuthenticationRequestException {
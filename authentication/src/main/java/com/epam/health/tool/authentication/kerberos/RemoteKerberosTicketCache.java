@@ -0,0 +1,160 @@
+package com.epam.health.tool.authentication.kerberos;
+
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
+import com.epam.health.tool.model.ClusterEntity;
+import com.epam.util.common.CheckingParamsUtil;
+import com.epam.util.ssh.delegating.SshExecResult;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks kerberos tickets of the ssh user on cluster hosts per (cluster, host, principal), so kinit runs only when
+ * the remote ticket is missing or close to the end of its lifetime instead of before every command.
+ * Commands are guarded with klist -s, a command that finds no valid ticket exits with TICKET_MISSING_EXIT_CODE
+ * before doing anything and can be repeated after kinit.
+ */
+@Component
+public class RemoteKerberosTicketCache {
+    public static final int TICKET_MISSING_EXIT_CODE = 96;
+
+    private final static Logger logger = Logger.getLogger( RemoteKerberosTicketCache.class );
+    private static final String USER_PLACEHOLDER = "{user}";
+
+    @Autowired
+    private SshAuthenticationClient sshAuthenticationClient;
+    //Should be less than ticket_lifetime of the clusters, a ticket expired earlier is caught by the klist guard
+    @Value( "${health.tool.kerberos.remote-ticket-renew-minutes:480}" )
+    private long renewMinutes = 480;
+    //Keytab on cluster hosts, {user} is replaced with the short principal name. Empty to kinit with the password
+    @Value( "${health.tool.kerberos.remote-keytab:}" )
+    private String remoteKeytab = "";
+
+    private final Map<TicketKey, RemoteTicket> remoteTickets = new ConcurrentHashMap<>();
+
+    //Kinit on the host unless its ticket was obtained recently, one kinit per host at a time
+    public void ensureTicket( ClusterEntity clusterEntity, String host ) throws AuthenticationRequestException {
+        RemoteTicket remoteTicket = remoteTickets.computeIfAbsent( createKey( clusterEntity, host ), key -> new RemoteTicket() );
+        if ( remoteTicket.isFresh() ) {
+            return;
+        }
+
+        synchronized ( remoteTicket ) {
+            if ( remoteTicket.isFresh() ) {
+                return;
+            }
+
+            SshExecResult sshExecResult = executeKinit( clusterEntity, host );
+            if ( sshExecResult.getExitCode() == 0 ) {
+                remoteTicket.renewAt = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis( renewMinutes );
+                logger.info( "Kinit on " + host + " of cluster " + clusterEntity.getClusterName() );
+            } else {
+                logger.warn( "Kinit on " + host + " of cluster " + clusterEntity.getClusterName() + " failed - " + sshExecResult.getErrMessage() );
+            }
+        }
+    }
+
+    //Runs the command guarded by klist, kinit and one more run if the remote ticket turned out to be missing
+    public SshExecResult executeWithTicket( ClusterEntity clusterEntity, String host, String command, IGuardedCommandCall commandCall )
+            throws AuthenticationRequestException {
+        ensureTicket( clusterEntity, host );
+        SshExecResult sshExecResult = commandCall.execute( guardCommand( command ) );
+        if ( isTicketMissing( sshExecResult ) ) {
+            invalidate( clusterEntity, host );
+            ensureTicket( clusterEntity, host );
+            sshExecResult = commandCall.execute( guardCommand( command ) );
+        }
+
+        return sshExecResult;
+    }
+
+    public boolean isTicketRequired( ClusterEntity clusterEntity ) {
+        return clusterEntity.isSecured() && Objects.nonNull( clusterEntity.getKerberos() ) && CheckingParamsUtil.isParamsNotNullOrEmpty(
+                clusterEntity.getKerberos().getUsername(), clusterEntity.getKerberos().getPassword() );
+    }
+
+    public void invalidate( ClusterEntity clusterEntity, String host ) {
+        remoteTickets.remove( createKey( clusterEntity, host ) );
+    }
+
+    //Command runs only with a valid ticket in the remote cache
+    public String guardCommand( String command ) {
+        return "klist -s > /dev/null 2>&1 || exit " + TICKET_MISSING_EXIT_CODE + "; " + command;
+    }
+
+    public boolean isTicketMissing( SshExecResult sshExecResult ) {
+        return sshExecResult.getExitCode() == TICKET_MISSING_EXIT_CODE;
+    }
+
+    //Password is written to stdin of kinit, it is never a part of the remote command line or shell history
+    private SshExecResult executeKinit( ClusterEntity clusterEntity, String host ) throws AuthenticationRequestException {
+        String principal = clusterEntity.getKerberos().getUsername();
+        if ( CheckingParamsUtil.isParamsNotNullOrEmpty( remoteKeytab ) ) {
+            return sshAuthenticationClient.executeCommand( clusterEntity,
+                    "kinit -kt " + remoteKeytab.replace( USER_PLACEHOLDER, getShortName( principal ) ) + " " + principal, host );
+        }
+
+        return sshAuthenticationClient.executeCommandWithInput( clusterEntity, "kinit " + principal,
+                clusterEntity.getKerberos().getPassword() + "\n", host );
+    }
+
+    private String getShortName( String principal ) {
+        return principal.split( "[/@]" )[ 0 ];
+    }
+
+    private TicketKey createKey( ClusterEntity clusterEntity, String host ) {
+        return new TicketKey( clusterEntity.getClusterName(), host.contains( ":" ) ? host.split( ":" )[ 0 ] : host,
+                clusterEntity.getKerberos().getUsername() );
+    }
+
+    @FunctionalInterface
+    public interface IGuardedCommandCall {
+        SshExecResult execute( String command ) throws AuthenticationRequestException;
+    }
+
+    private static class RemoteTicket {
+        private volatile long renewAt;
+
+        private boolean isFresh() {
+            return System.currentTimeMillis() < renewAt;
+        }
+    }
+
+    private static class TicketKey {
+        private final String clusterName;
+        private final String host;
+        private final String principal;
+
+        private TicketKey( String clusterName, String host, String principal ) {
+            this.clusterName = clusterName;
+            this.host = host;
+            this.principal = principal;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+            TicketKey that = (TicketKey) o;
+            return Objects.equals( clusterName, that.clusterName ) &&
+                    Objects.equals( host, that.host ) &&
+                    Objects.equals( principal, that.principal );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( clusterName, host, principal );
+        }
+    }
+}
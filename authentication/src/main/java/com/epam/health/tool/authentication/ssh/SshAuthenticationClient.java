@@ -7,14 +7,22 @@ import com.epam.health.tool.model.credentials.SshCredentialsEntity;
 import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.file.DownloadedFileWrapper;
 import com.epam.util.ssh.SshCommonUtil;
+import com.epam.util.ssh.delegating.ISshLineListener;
 import com.epam.util.ssh.delegating.SshExecResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Component
 public class SshAuthenticationClient {
     @Autowired
     private ClusterDao clusterDao;
+    @Autowired
+    private SshCommandResultCache sshCommandResultCache;
 
     public SshExecResult executeCommand( String clusterName, String command ) throws AuthenticationRequestException {
         return executeCommand( getClusterEntity( clusterName ), command );
@@ -36,6 +44,82 @@ public class SshAuthenticationClient {
             throw new AuthenticationRequestException( e );
         }
     }
+
+    //Input is passed on stdin of the command, for secrets that must not be a part of the command line
+    public SshExecResult executeCommandWithInput( ClusterEntity clusterEntity, String command, String input, String host ) throws AuthenticationRequestException {
+        try {
+            return SshCommonUtil.buildSshCommandExecutor( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                    .executeCommandWithInput( trimHost( host ), command, input.getBytes( StandardCharsets.UTF_8 ) );
+        } catch (CommonUtilException e) {
+            throw new AuthenticationRequestException( e );
+        }
+    }
+
+    //Streams output lines to the listener, which may stop the remote command early
+    public SshExecResult executeCommand( ClusterEntity clusterEntity, String command, String host, ISshLineListener lineListener ) throws AuthenticationRequestException {
+        try {
+            return SshCommonUtil.buildSshCommandExecutor( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                    .executeCommand( trimHost( host ), command, lineListener );
+        } catch (CommonUtilException e) {
+            throw new AuthenticationRequestException( e );
+        }
+    }
+
+    //Read-only probes only, mutating commands bypass the cache
+    public SshExecResult executeCachedCommand( String clusterName, String command ) throws AuthenticationRequestException {
+        return executeCachedCommand( getClusterEntity( clusterName ), command );
+    }
+
+    public SshExecResult executeCachedCommand( String clusterName, String command, String host ) throws AuthenticationRequestException {
+        return executeCachedCommand( getClusterEntity( clusterName ), command, host );
+    }
+
+    public SshExecResult executeCachedCommand( ClusterEntity clusterEntity, String command ) throws AuthenticationRequestException {
+        return executeCachedCommand( clusterEntity, command, clusterEntity.getHost() );
+    }
+
+    public SshExecResult executeCachedCommand( ClusterEntity clusterEntity, String command, String host ) throws AuthenticationRequestException {
+        return sshCommandResultCache.getOrExecute( clusterEntity.getClusterName(), trimHost( host ), command,
+                () -> executeCommand( clusterEntity, command, host ) );
+    }
+
+    public void invalidateCachedCommands( String clusterName ) {
+        sshCommandResultCache.invalidate( clusterName );
+    }
+
+    public void invalidateCachedCommand( ClusterEntity clusterEntity, String command, String host ) {
+        sshCommandResultCache.invalidate( clusterEntity.getClusterName(), trimHost( host ), command );
+    }
+
+    public List<SshExecResult> executeBatch( String clusterName, List<String> commands, String host ) throws AuthenticationRequestException {
+        return executeBatch( getClusterEntity( clusterName ), commands, host );
+    }
+
+    public List<SshExecResult> executeBatch( ClusterEntity clusterEntity, List<String> commands ) throws AuthenticationRequestException {
+        return executeBatch( clusterEntity, commands, clusterEntity.getHost() );
+    }
+
+    public List<SshExecResult> executeBatch( ClusterEntity clusterEntity, List<String> commands, String host ) throws AuthenticationRequestException {
+        try {
+            return SshCommonUtil.buildSshCommandExecutor( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                    .executeBatch( trimHost( host ), commands );
+        } catch (CommonUtilException e) {
+            throw new AuthenticationRequestException( e );
+        }
+    }
+
+    public CompletableFuture<SshExecResult> executeCommandAsync( String clusterName, String command, String host ) {
+        return executeCommandAsync( getClusterEntity( clusterName ), command, host );
+    }
+
+    public CompletableFuture<SshExecResult> executeCommandAsync( ClusterEntity clusterEntity, String command, String host ) {
+        return SshCommonUtil.buildSshCommandExecutor( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                .executeCommandAsync( trimHost( host ), command )
+                .exceptionally( throwable -> {
+                    throw new CompletionException( new AuthenticationRequestException( throwable.getCause() ) );
+                } );
+    }
+
     public SshExecResult executeCommand( SshCredentialsEntity sshCredentialsEntity, String command, String host ) throws AuthenticationRequestException {
         try {
             return SshCommonUtil.buildSshCommandExecutor( sshCredentialsEntity.getUsername(), sshCredentialsEntity.getPassword(), sshCredentialsEntity.getPemFilePath() )
@@ -54,6 +138,24 @@ public class SshAuthenticationClient {
         }
     }
 
+    public long downloadFileTo( ClusterEntity clusterEntity, String pathToFile, String destination ) throws AuthenticationRequestException {
+        try {
+            return SshCommonUtil.buildSshSftpDownloader( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                    .downloadViaSftpToFile( trimHost( clusterEntity.getHost() ), pathToFile, destination );
+        } catch (CommonUtilException e) {
+            throw new AuthenticationRequestException( e );
+        }
+    }
+
+    public void uploadFile( ClusterEntity clusterEntity, byte[] content, String destination, String host ) throws AuthenticationRequestException {
+        try {
+            SshCommonUtil.buildSshSftpUploader( clusterEntity.getSsh().getUsername(), clusterEntity.getSsh().getPassword(), clusterEntity.getSsh().getPemFilePath() )
+                    .uploadViaSftp( trimHost( host ), content, destination );
+        } catch (CommonUtilException e) {
+            throw new AuthenticationRequestException( e );
+        }
+    }
+
     public DownloadedFileWrapper downloadFile( String clusterName, String command ) throws AuthenticationRequestException {
         return downloadFile( getClusterEntity( clusterName ), command );
     }
@@ -0,0 +1,51 @@
+package com.epam.health.tool.authentication.ssh;
+
+import com.epam.util.common.StringUtils;
+import com.epam.util.ssh.delegating.SshTimeouts;
+import com.epam.util.ssh.pool.SshSessionPool;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies default ssh timeouts and per-host ssh channel limits to the shared session pool.
+ * Permit overrides are given as comma separated host:permits pairs, for hosts with a non default sshd MaxSessions.
+ */
+@Component
+public class SshClientConfigurer implements InitializingBean {
+    private final static Logger logger = Logger.getLogger( SshClientConfigurer.class );
+    private static final String HOST_PERMITS_SEPARATOR = ":";
+
+    @Value( "${health.tool.ssh.host-permits:10}" )
+    private int hostPermits = 10;
+    @Value( "${health.tool.ssh.host-permits.overrides:}" )
+    private String hostPermitsOverrides = StringUtils.EMPTY;
+    @Value( "${health.tool.ssh.connect-timeout-seconds:30}" )
+    private long connectTimeoutSeconds = 30;
+    @Value( "${health.tool.ssh.read-timeout-seconds:600}" )
+    private long readTimeoutSeconds = 600;
+    @Value( "${health.tool.ssh.execution-timeout-seconds:1800}" )
+    private long executionTimeoutSeconds = 1800;
+
+    @Override
+    public void afterPropertiesSet() {
+        SshTimeouts.setDefault( new SshTimeouts( TimeUnit.SECONDS.toMillis( connectTimeoutSeconds ),
+                TimeUnit.SECONDS.toMillis( readTimeoutSeconds ), TimeUnit.SECONDS.toMillis( executionTimeoutSeconds ) ) );
+        SshSessionPool.get().setHostPermits( hostPermits );
+        Arrays.stream( hostPermitsOverrides.split( "," ) ).map( String::trim ).filter( override -> !override.isEmpty() )
+                .forEach( this::applyOverride );
+    }
+
+    private void applyOverride( String override ) {
+        String[] hostAndPermits = override.split( HOST_PERMITS_SEPARATOR );
+        try {
+            SshSessionPool.get().setHostPermits( hostAndPermits[0].trim(), Integer.parseInt( hostAndPermits[1].trim() ) );
+        } catch ( ArrayIndexOutOfBoundsException | NumberFormatException ex ) {
+            logger.error( "Invalid ssh host permits override " + override + ", expected host:permits" );
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.epam.health.tool.authentication.ssh;
+
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.util.ssh.delegating.SshExecResult;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Caches results of read-only probe commands per (cluster, host, command).
+ * Identical concurrent commands share one remote execution, entries expire by a per-command TTL
+ * and the least recently used ones are dropped when the cache is full. Commands that may change remote state
+ * are never cached.
+ */
+@Component
+public class SshCommandResultCache {
+    private static final int MAX_ENTRIES = 1024;
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis( 1 );
+    private static final Pattern MUTATING_COMMAND = Pattern.compile(
+            "(^|[\\s;&|(])(rm|rmdir|mkdir|mv|cp|touch|chmod|chown|kill|pkill|kinit|kdestroy|sudo|su|tee|dd|truncate|sed\\s+-i)(\\s|$)"
+                    + "|\\s-(touchz|rm|rmdir|mkdir|put|copyFromLocal|moveFromLocal|mv|cp|chmod|chown|setrep|truncate)(\\s|$)"
+                    + "|\\syarn\\s+jar\\s|^yarn\\s+jar\\s|>" );
+
+    private final Map<Pattern, Long> commandTtls = new LinkedHashMap<>();
+    private final Map<CommandKey, CachedResult> cache = new LinkedHashMap<CommandKey, CachedResult>( 16, 0.75f, true ) {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<CommandKey, CachedResult> eldest ) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public SshCommandResultCache() {
+        setCommandTtl( "^hadoop\\s+classpath", 1, TimeUnit.HOURS );
+        setCommandTtl( "^ls\\s", 10, TimeUnit.MINUTES );
+        setCommandTtl( "^ps\\s+aux", 1, TimeUnit.MINUTES );
+        setCommandTtl( "^df\\s", 30, TimeUnit.SECONDS );
+    }
+
+    public SshExecResult getOrExecute( String clusterName, String host, String command, ISshCommandCall commandCall )
+            throws AuthenticationRequestException {
+        if ( !isCacheable( command ) ) {
+            return commandCall.execute();
+        }
+
+        CommandKey commandKey = new CommandKey( clusterName, host, command.trim() );
+        CachedResult cachedResult;
+        boolean owner = false;
+        synchronized ( cache ) {
+            cachedResult = cache.get( commandKey );
+            if ( cachedResult == null || cachedResult.isExpired() ) {
+                cachedResult = new CachedResult();
+                cache.put( commandKey, cachedResult );
+                owner = true;
+            }
+        }
+
+        if ( owner ) {
+            executeAndComplete( commandKey, cachedResult, commandCall, getTtlMillis( command ) );
+        }
+
+        return copyOf( awaitResult( cachedResult ) );
+    }
+
+    public boolean isCacheable( String command ) {
+        return command != null && !MUTATING_COMMAND.matcher( command.trim() ).find();
+    }
+
+    public void setCommandTtl( String commandRegexp, long ttl, TimeUnit timeUnit ) {
+        synchronized ( commandTtls ) {
+            commandTtls.put( Pattern.compile( commandRegexp ), timeUnit.toMillis( ttl ) );
+        }
+    }
+
+    public void invalidate( String clusterName ) {
+        synchronized ( cache ) {
+            cache.keySet().removeIf( commandKey -> commandKey.clusterName.equals( clusterName ) );
+        }
+    }
+
+    public void invalidate( String clusterName, String host, String command ) {
+        synchronized ( cache ) {
+            cache.remove( new CommandKey( clusterName, host, command.trim() ) );
+        }
+    }
+
+    private void executeAndComplete( CommandKey commandKey, CachedResult cachedResult, ISshCommandCall commandCall, long ttlMillis ) {
+        try {
+            SshExecResult sshExecResult = commandCall.execute();
+            cachedResult.expiresAt = System.currentTimeMillis() + ttlMillis;
+            //Partial output of a killed command and failed execs are handed to the waiting callers only
+            if ( !isCompleted( sshExecResult ) ) {
+                synchronized ( cache ) {
+                    cache.remove( commandKey, cachedResult );
+                }
+            }
+            cachedResult.result.complete( sshExecResult );
+        } catch ( AuthenticationRequestException | RuntimeException ex ) {
+            //Failures are not cached
+            synchronized ( cache ) {
+                cache.remove( commandKey, cachedResult );
+            }
+            cachedResult.result.completeExceptionally( ex );
+        }
+    }
+
+    //Exit code -1 means the exec failed in ssh and the command's own exit status is unknown, non-zero exit codes are valid probe answers
+    private boolean isCompleted( SshExecResult sshExecResult ) {
+        return !sshExecResult.isTimedOut() && sshExecResult.getExitCode() >= 0;
+    }
+
+    private SshExecResult awaitResult( CachedResult cachedResult ) throws AuthenticationRequestException {
+        try {
+            return cachedResult.result.join();
+        } catch ( CompletionException ex ) {
+            if ( ex.getCause() instanceof AuthenticationRequestException ) {
+                throw (AuthenticationRequestException) ex.getCause();
+            }
+
+            throw new AuthenticationRequestException( ex.getCause() );
+        }
+    }
+
+    private long getTtlMillis( String command ) {
+        synchronized ( commandTtls ) {
+            return commandTtls.entrySet().stream().filter( commandTtl -> commandTtl.getKey().matcher( command.trim() ).find() )
+                    .map( Map.Entry::getValue ).findFirst().orElse( DEFAULT_TTL_MILLIS );
+        }
+    }
+
+    //Callers are free to modify returned results, so the cached one is never handed out
+    private SshExecResult copyOf( SshExecResult sshExecResult ) {
+        return SshExecResult.SshExecResultBuilder.get().appendToOut( sshExecResult.getOutMessage() )
+                .appendToErr( sshExecResult.getErrMessage() ).setExitCode( sshExecResult.getExitCode() ).setTimedOut( sshExecResult.isTimedOut() ).build();
+    }
+
+    @FunctionalInterface
+    public interface ISshCommandCall {
+        SshExecResult execute() throws AuthenticationRequestException;
+    }
+
+    private static class CachedResult {
+        private final CompletableFuture<SshExecResult> result = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+
+    private static class CommandKey {
+        private final String clusterName;
+        private final String host;
+        private final String command;
+
+        private CommandKey( String clusterName, String host, String command ) {
+            this.clusterName = clusterName;
+            this.host = host;
+            this.command = command;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+            CommandKey that = (CommandKey) o;
+            return Objects.equals( clusterName, that.clusterName ) &&
+                    Objects.equals( host, that.host ) &&
+                    Objects.equals( command, that.command );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( clusterName, host, command );
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.epam.health.tool.facade.cluster.receiver;
 import com.epam.facade.model.fs.HdfsNamenodeJson;
 import com.epam.facade.model.exception.InvalidResponseException;
 
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -12,8 +13,12 @@ public interface IRunningClusterParamReceiver {
     String getLogDirectory(String clusterName) throws InvalidResponseException;
     String getYarnLocalDirectory(String clusterName) throws InvalidResponseException;
     String getPropertySiteXml( String clusterName, String siteName, String propertyName ) throws InvalidResponseException;
+    Map<String, String> getPropertiesSiteXml( String clusterName, String siteName, Set<String> propertyNames ) throws InvalidResponseException;
     Set<String> getLiveNodes(String clusterName ) throws InvalidResponseException;
     HdfsNamenodeJson getHdfsNamenodeJson( String clusterName ) throws InvalidResponseException;
     String getActiveResourceManagerAddress( String clusterName ) throws InvalidResponseException;
     String getNameNodeUrl( String clusterName ) throws InvalidResponseException;
+    void reportFailedAddress( String clusterName, String address );
+    //Resolve discovered params again and replace cached ones, failures keep the cached values
+    void refreshClusterParams( String clusterName );
 }
@@ -2,6 +2,8 @@ package com.epam.health.tool.facade.context;
 
 import com.epam.facade.model.context.ContextKey;
 
+import java.util.concurrent.TimeUnit;
+
 public interface IApplicationContext {
     void putHolder( ContextKey holderKey, ISingleContextHolder holder );
     void putHolderIfAbsent( ContextKey holderKey, ISingleContextHolder holder );
@@ -11,6 +13,16 @@ public interface IApplicationContext {
     <T> T getFromContext( String clusterName, String minorKey, Class<?> holderClass, T defaultValue );
     void addToContext( String clusterName, String minorKey, Class<?> holderClass, ISingleContextHolder value );
     void addToContextIfAbsent( String clusterName, String minorKey, Class<?> holderClass, ISingleContextHolder value );
+    //Get value from specific holder, concurrent callers of a missing holder wait for one loader call. Null holder isn't saved
+    <T, E extends Exception> T computeIfAbsent( String clusterName, String minorKey, Class<?> holderClass,
+                                                IContextHolderLoader<T, E> loader, T defaultValue ) throws E;
     //Remove all holders by specific minor key
     void removeAllByMinorKey( String minorKey );
+    //Holders of the minor key expire after the ttl, zero or less keeps them until removed or evicted
+    void setMinorKeyTtl( String minorKey, long ttl, TimeUnit timeUnit );
+
+    @FunctionalInterface
+    interface IContextHolderLoader<T, E extends Exception> {
+        ISingleContextHolder<T> load() throws E;
+    }
 }
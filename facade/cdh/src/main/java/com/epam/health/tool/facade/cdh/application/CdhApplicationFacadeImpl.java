@@ -9,7 +9,6 @@ import com.epam.health.tool.facade.cluster.IClusterFacade;
 import com.epam.health.tool.facade.resolver.ClusterSpecificComponent;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.model.ClusterTypeEnum;
-import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.json.CommonJsonHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -29,17 +28,11 @@ public class CdhApplicationFacadeImpl implements IApplicationFacade {
         String url = "http://" + clusterEntity.getHost() + ":7180/api/v10/clusters/" + clusterName + "/services/yarn/yarnApplications";
 
         try {
-            String answer = httpAuthenticationClient.makeAuthenticatedRequest( clusterName, url, false );
-            List<ApplicationInfo> appList = CommonJsonHandler.get().getListTypedValueFromInnerField( answer, ApplicationInfo.class, "applications" );
-
-            if ( appList != null ) {
-                return appList;
-            }
-            else {
-                throw new InvalidResponseException( "Elements not found. Answer string - " + answer );
-            }
+            //Application list can be large, only ApplicationInfo fields are kept while reading
+            return httpAuthenticationClient.makeAuthenticatedRequest( clusterName, url, false,
+                    content -> CommonJsonHandler.get().readListTypedValueFromInnerField( content, ApplicationInfo.class, "applications" ) );
         }
-        catch ( CommonUtilException | AuthenticationRequestException ex ) {
+        catch ( AuthenticationRequestException ex ) {
             throw new InvalidResponseException( "Elements not found.", ex );
         }
     }
@@ -15,7 +15,7 @@ import com.epam.util.common.CheckingParamsUtil;
 import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.file.FileCommonUtil;
 import com.epam.util.common.json.CommonJsonHandler;
-import com.epam.util.common.xml.XmlPropertyHandler;
+import com.epam.util.common.xml.SiteConfigIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +24,8 @@ import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Created by Vasilina_Terehova on 4/14/2018.
@@ -56,16 +58,26 @@ public class CdhRuningClusterParamReceiver extends CommonRuningClusterParamRecei
     }
 
     public String getPropertySiteXml(ClusterEntity clusterEntity, String siteName, String propertyName ) throws InvalidResponseException {
+        return SiteConfigIndex.get().getProperty( getSiteFile( clusterEntity, siteName ), propertyName );
+    }
+
+    @Override
+    protected Map<String, String> getPropertiesSiteXml( ClusterEntity clusterEntity, String siteName, Set<String> propertyNames ) throws InvalidResponseException {
+        return SiteConfigIndex.get().getProperties( getSiteFile( clusterEntity, siteName ), propertyNames );
+    }
+
+    //Site file is downloaded once, its parsed properties are kept until the file changes
+    private String getSiteFile( ClusterEntity clusterEntity, String siteName ) throws InvalidResponseException {
         String serviceFileName = getServiceFileName( clusterEntity.getClusterName(), siteName );
 
         if ( !isFileExist( clusterEntity.getClusterName(), siteName ) ) {
             String siteFileUrl = "http://" + clusterEntity.getHost() + ":7180/api/v10/clusters/" + clusterEntity.getClusterName()
                     + "/services/yarn/roles/" + findNodeManagerRole( clusterEntity ) + "/process/configFiles/" + siteName;
             downloadSiteFile( clusterEntity, siteFileUrl, serviceFileName );
+            SiteConfigIndex.get().invalidate( serviceFileName );
         }
 
-        //get xml tag
-        return XmlPropertyHandler.readXmlPropertyValue(serviceFileName, propertyName);
+        return serviceFileName;
     }
 
     @Override
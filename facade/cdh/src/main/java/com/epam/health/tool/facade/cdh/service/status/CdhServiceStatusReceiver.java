@@ -30,9 +30,8 @@ public class CdhServiceStatusReceiver extends CommonServiceStatusReceiver {
         try {
             String url = "http://" + clusterEntity.getHost() + API_V10_CLUSTERS + clusterEntity.getClusterName() + SERVICES;
 
-            String answer = httpAuthenticationClient.makeAuthenticatedRequest(clusterEntity.getClusterName(), url, false);
-
-            return extractFromJsonString(answer);
+            return new ArrayList<>( httpAuthenticationClient.makeAuthenticatedRequest(clusterEntity.getClusterName(), url, false,
+                    content -> CommonJsonHandler.get().readListTypedValueFromInnerField(content, ServiceStatus.class, "items")) );
         } catch (AuthenticationRequestException ex ) {
             throw new InvalidResponseException( ex );
         }
@@ -50,12 +49,4 @@ public class CdhServiceStatusReceiver extends CommonServiceStatusReceiver {
             throw new InvalidResponseException("Can't extract status for cluster " + clusterEntity.getHost() + " for service " + serviceTypeEnum.name(), e);
         }
     }
-
-    private List<ServiceStatusHolder> extractFromJsonString(String jsonString) throws InvalidResponseException {
-        try {
-            return new ArrayList<>(CommonJsonHandler.get().getListTypedValueFromInnerField(jsonString, ServiceStatus.class, "items"));
-        } catch (CommonUtilException e) {
-            throw new InvalidResponseException("Can't extract application list from answer - " + jsonString, e);
-        }
-    }
 }
@@ -5,10 +5,13 @@ import com.epam.facade.model.ClusterSearchParam;
 import com.epam.facade.model.projection.ClusterEntityProjection;
 import com.epam.facade.model.projection.ClusterIdsProjection;
 import com.epam.facade.model.projection.impl.ClusterEntityProjectionImpl;
+import com.epam.health.tool.authentication.http.HttpAuthenticationClient;
+import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.dao.cluster.ClusterSnapshotDao;
 import com.epam.health.tool.facade.cluster.IClusterFacade;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.common.cluster.receiver.ClusterTopologyStore;
 import com.epam.health.tool.facade.common.util.ClusterEntityModifier;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
 import com.epam.facade.model.exception.InvalidResponseException;
@@ -43,6 +46,15 @@ public class ClusterFacadeImpl implements IClusterFacade {
     @Autowired
     private IFacadeImplResolver<IRunningClusterParamReceiver> clusterParamReceiverIFacadeImplResolver;
 
+    @Autowired
+    private SshAuthenticationClient sshAuthenticationClient;
+
+    @Autowired
+    private HttpAuthenticationClient httpAuthenticationClient;
+
+    @Autowired
+    private ClusterTopologyStore clusterTopologyStore;
+
     @Override
     public List<ClusterEntityProjection> getClusterList() {
         return clusterDao.findAllProjections();
@@ -66,6 +78,7 @@ public class ClusterFacadeImpl implements IClusterFacade {
     public ClusterEntityProjection saveCluster(ClusterEntityProjection clusterEntityProjection) {
         ClusterEntity clusterEntity = ClusterEntityModifier.get().withEntity( mapProjectionToEntity( clusterEntityProjection ) )
                 .fillEmptyRequiredFields().nullEmptyCredentials().doModify();
+        clusterTopologyStore.invalidate( clusterEntity.getClusterName() );
         return mapEntityToProjection( clusterDao.save( clusterEntity ) );
     }
 
@@ -75,11 +88,17 @@ public class ClusterFacadeImpl implements IClusterFacade {
         clusterEntity = ClusterEntityModifier.get().withEntity( clusterEntity )
                 .withIds( findClusterIds( clusterEntity ) ).fillEmptyRequiredFields()
                 .nullAllIds().setIdsIfMissing().nullEmptyCredentials().doModify();
+        sshAuthenticationClient.invalidateCachedCommands( clusterEntity.getClusterName() );
+        httpAuthenticationClient.invalidateClients( clusterEntity.getClusterName() );
+        clusterTopologyStore.invalidate( clusterEntity.getClusterName() );
         return mapEntityToProjection( clusterDao.save( clusterEntity ) );
     }
 
     public void deleteCluster(String name) {
         clusterDao.deleteById( clusterDao.findIdsByClusterName( name ).getId() );
+        sshAuthenticationClient.invalidateCachedCommands( name );
+        httpAuthenticationClient.invalidateClients( name );
+        clusterTopologyStore.invalidate( name );
     }
 
     private ClusterEntity mapProjectionToEntity( ClusterEntityProjection clusterEntityProjection ) {
@@ -90,8 +90,12 @@ public abstract class CommonClusterSnapshotFacadeImpl implements IClusterSnapsho
             List<JobResultProjection> jobResults = yarnHealthCheckResult.getJobResults();
             ClusterServiceSnapshotEntity finalClusterServiceSnapshotEntity = clusterServiceSnapshotEntity;
             if (jobResults != null) {
-                jobResults.forEach(yarnJob -> jobResultDao.save(new JobResultEntity(yarnJob.getName(), new Date(), yarnJob.isSuccess(),
-                        finalClusterServiceSnapshotEntity, yarnJob.getAlerts())));
+                jobResults.forEach(yarnJob -> {
+                    JobResultEntity jobResultEntity = new JobResultEntity(yarnJob.getName(), new Date(), yarnJob.isSuccess(),
+                            finalClusterServiceSnapshotEntity, yarnJob.getAlerts());
+                    jobResultEntity.setTimedOut(yarnJob.isTimedOut());
+                    jobResultDao.save(jobResultEntity);
+                });
             }
         }
         catch ( InvalidResponseException ex ) {
@@ -1,22 +1,49 @@
 package com.epam.health.tool.facade.common.cluster;
 
 import com.epam.facade.model.HealthCheckActionType;
+import com.epam.facade.model.ServiceStatus;
 import com.epam.facade.model.accumulator.ClusterAccumulatorToken;
 import com.epam.facade.model.accumulator.HealthCheckResultsAccumulator;
+import com.epam.facade.model.accumulator.results.impl.JobResultImpl;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.cluster.IHealthCheckFacade;
 import com.epam.health.tool.facade.common.resolver.impl.action.HealthCheckActionImplResolver;
+import com.epam.health.tool.facade.common.service.action.CommonRestHealthCheckAction;
+import com.epam.health.tool.facade.common.service.action.HealthCheckSchedulers;
+import com.epam.health.tool.facade.resolver.action.HealthCheckAction;
+import com.epam.health.tool.facade.service.action.IServiceHealthCheckAction;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.model.ClusterEntity;
+import com.epam.health.tool.model.ServiceStatusEnum;
+import com.epam.health.tool.model.ServiceTypeEnum;
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Created by Vasilina_Terehova on 4/19/2018.
  */
 @Component
 public class HealthCheckerFacadeImpl implements IHealthCheckFacade {
+    private final static Logger logger = Logger.getLogger( HealthCheckerFacadeImpl.class );
+    private static final Map<HealthCheckActionType, ServiceTypeEnum> SERVICE_CHECK_TYPES = new EnumMap<>( HealthCheckActionType.class );
+
+    static {
+        SERVICE_CHECK_TYPES.put( HealthCheckActionType.HDFS_SERVICE, ServiceTypeEnum.HDFS );
+        SERVICE_CHECK_TYPES.put( HealthCheckActionType.YARN_SERVICE, ServiceTypeEnum.YARN );
+    }
+
     @Autowired
     protected ClusterDao clusterDao;
 
@@ -27,20 +54,96 @@ public class HealthCheckerFacadeImpl implements IHealthCheckFacade {
         ClusterEntity clusterEntity = clusterDao.findByClusterName( clusterName );
         HealthCheckResultsAccumulator healthCheckResultsAccumulator = HealthCheckResultsAccumulator.HealthCheckResultsModifier.get()
                 .setClusterName( clusterName ).setToken(clusterAccumulatorToken.getToken()).modify();
+        List<IServiceHealthCheckAction> serviceHealthCheckActions = healthCheckActionImplResolver.resolveActionImplementations( clusterEntity.getClusterTypeEnum().name(),
+                clusterAccumulatorToken.getHealthCheckActionType() );
+        List<Throwable> unreportedFailures = Collections.synchronizedList( new ArrayList<>() );
 
-        Flux.fromStream( healthCheckActionImplResolver.resolveActionImplementations( clusterEntity.getClusterTypeEnum().name(), clusterAccumulatorToken.getHealthCheckActionType() ).stream() )
-                .parallel().doOnNext( serviceHealthCheckAction -> {
-            try {
-                serviceHealthCheckAction.performHealthCheck(clusterEntity.getClusterName(), healthCheckResultsAccumulator);
-            } catch (InvalidResponseException e) {
-                //Should be changed
-                throw new RuntimeException( e );
-            }
-        } ).subscribe();
+        //Checks of the cluster run concurrently, blocking ones on the bounded scheduler of HealthCheckSchedulers.
+        //Service statuses are read by the hdfs check, so the other services check completes before the rest start.
+        //Hdfs and yarn job checks run one after another, as before, so a check doesn't load the cluster with both jobs
+        List<IServiceHealthCheckAction> restActions = serviceHealthCheckActions.stream()
+                .filter( action -> !isServiceStatusAction( action ) && !isJobAction( action ) ).collect( Collectors.toList() );
+        List<IServiceHealthCheckAction> jobActions = serviceHealthCheckActions.stream().filter( this::isJobAction ).collect( Collectors.toList() );
+        performHealthChecksAsync( serviceHealthCheckActions.stream().filter( this::isServiceStatusAction ).collect( Collectors.toList() ),
+                clusterName, healthCheckResultsAccumulator, unreportedFailures, Queues.SMALL_BUFFER_SIZE )
+                .then( Mono.when( performHealthChecksAsync( restActions, clusterName, healthCheckResultsAccumulator, unreportedFailures, Queues.SMALL_BUFFER_SIZE ),
+                        performHealthChecksAsync( jobActions, clusterName, healthCheckResultsAccumulator, unreportedFailures, 1 ) ) )
+                .block();
+
+        //Failures without a service status to report them in break the snapshot as before, after all checks are done
+        if ( !unreportedFailures.isEmpty() ) {
+            RuntimeException failure = Exceptions.propagate( unreportedFailures.get( 0 ) );
+            unreportedFailures.stream().skip( 1 ).forEach( failure::addSuppressed );
+
+            throw failure;
+        }
 
         return healthCheckResultsAccumulator;
     }
 
+    private Mono<Void> performHealthChecksAsync( List<IServiceHealthCheckAction> serviceHealthCheckActions, String clusterName,
+                                                 HealthCheckResultsAccumulator healthCheckResultsAccumulator, List<Throwable> unreportedFailures,
+                                                 int concurrency ) {
+        return Flux.fromIterable( serviceHealthCheckActions )
+                .flatMap( serviceHealthCheckAction -> performHealthCheckAsync( serviceHealthCheckAction, clusterName, healthCheckResultsAccumulator )
+                        .onErrorResume( ex -> {
+                            logger.error( "Health check " + serviceHealthCheckAction.getClass().getSimpleName() + " failed for " + clusterName, ex );
+                            reportFailedHealthCheck( serviceHealthCheckAction, healthCheckResultsAccumulator, ex, unreportedFailures );
+                            return Mono.empty();
+                        } ), concurrency )
+                .then();
+    }
+
+    //Failed service check is reported as a bad service status with the error as a failed job
+    private void reportFailedHealthCheck( IServiceHealthCheckAction serviceHealthCheckAction, HealthCheckResultsAccumulator healthCheckResultsAccumulator,
+                                          Throwable failure, List<Throwable> unreportedFailures ) {
+        ServiceTypeEnum serviceType = SERVICE_CHECK_TYPES.get( getHealthCheckActionType( serviceHealthCheckAction ) );
+        try {
+            if ( serviceType == null || healthCheckResultsAccumulator.getServiceHealthCheckResultIfExists( serviceType ).isPresent() ) {
+                unreportedFailures.add( failure );
+                return;
+            }
+
+            ServiceStatus serviceStatus = new ServiceStatus();
+            serviceStatus.setType( serviceType );
+            serviceStatus.setHealthSummary( ServiceStatusEnum.BAD );
+            serviceStatus.setJobResults( Collections.singletonList( new JobResultImpl( serviceType.name() + " health check", false,
+                    Collections.singletonList( String.valueOf( failure.getMessage() ) ) ) ) );
+            healthCheckResultsAccumulator.addServiceStatus( serviceStatus );
+        } catch ( InvalidResponseException ex ) {
+            unreportedFailures.add( failure );
+        }
+    }
+
+    private boolean isServiceStatusAction( IServiceHealthCheckAction serviceHealthCheckAction ) {
+        return HealthCheckActionType.OTHER_SERVICES.equals( getHealthCheckActionType( serviceHealthCheckAction ) );
+    }
+
+    private boolean isJobAction( IServiceHealthCheckAction serviceHealthCheckAction ) {
+        return SERVICE_CHECK_TYPES.containsKey( getHealthCheckActionType( serviceHealthCheckAction ) );
+    }
+
+    private HealthCheckActionType getHealthCheckActionType( IServiceHealthCheckAction serviceHealthCheckAction ) {
+        HealthCheckAction healthCheckAction = serviceHealthCheckAction.getClass().getAnnotation( HealthCheckAction.class );
+
+        return healthCheckAction != null ? healthCheckAction.value() : HealthCheckActionType.NONE;
+    }
+
+    private Mono<Void> performHealthCheckAsync( IServiceHealthCheckAction serviceHealthCheckAction, String clusterName,
+                                                HealthCheckResultsAccumulator healthCheckResultsAccumulator ) {
+        if ( serviceHealthCheckAction instanceof CommonRestHealthCheckAction ) {
+            return ( (CommonRestHealthCheckAction<?>) serviceHealthCheckAction ).performHealthCheckAsync( clusterName, healthCheckResultsAccumulator );
+        }
+
+        return Mono.fromRunnable( () -> {
+            try {
+                serviceHealthCheckAction.performHealthCheck( clusterName, healthCheckResultsAccumulator );
+            } catch ( InvalidResponseException ex ) {
+                throw Exceptions.propagate( ex );
+            }
+        } ).subscribeOn( HealthCheckSchedulers.blockingChecks() ).then();
+    }
+
     @Override
     public HealthCheckResultsAccumulator askForClusterSnapshot(ClusterAccumulatorToken clusterAccumulatorToken) throws InvalidResponseException {
         return performHealthChecks( clusterAccumulatorToken.getClusterName(), clusterAccumulatorToken );
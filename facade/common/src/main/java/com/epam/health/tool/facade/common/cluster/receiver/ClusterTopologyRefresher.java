@@ -0,0 +1,115 @@
+package com.epam.health.tool.facade.common.cluster.receiver;
+
+import com.epam.facade.model.exception.ImplementationNotResolvedException;
+import com.epam.health.tool.dao.cluster.ClusterDao;
+import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.common.service.action.yarn.CommonYarnServiceHealthCheckActionImpl;
+import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
+import com.epam.health.tool.model.ClusterEntity;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves topology of every registered cluster in background before the cached values expire - NameNode and RM
+ * addresses, live nodes, yarn dirs and, less often, the examples jar path. Health checks read warm values instead
+ * of running the discovery chain on their first call.
+ */
+@Component
+public class ClusterTopologyRefresher {
+    private final static Logger logger = Logger.getLogger( ClusterTopologyRefresher.class );
+
+    @Value( "${health.tool.topology.refresh.enabled:true}" )
+    private boolean enabled = true;
+    @Value( "${health.tool.topology.refresh.parallelism:4}" )
+    private int parallelism = 4;
+    @Value( "${health.tool.topology.refresh.jar-path-interval-hours:12}" )
+    private long jarPathIntervalHours = 12;
+
+    @Autowired
+    private ClusterDao clusterDao;
+    @Autowired
+    private IFacadeImplResolver<IRunningClusterParamReceiver> clusterParamReceiverIFacadeImplResolver;
+    @Autowired
+    private CommonYarnServiceHealthCheckActionImpl yarnServiceHealthCheckAction;
+    @Autowired
+    private ClusterTopologyStore clusterTopologyStore;
+
+    private final Map<String, Long> jarPathRefreshedAt = new ConcurrentHashMap<>();
+    private final Set<String> refreshingClusters = ConcurrentHashMap.newKeySet();
+    private ExecutorService refreshExecutor;
+
+    //Persisted topology is restored once the receivers have set up their TTLs, the first refresh validates it
+    @PostConstruct
+    public void init() {
+        clusterTopologyStore.restore();
+        refreshExecutor = Executors.newFixedThreadPool( parallelism, runnable -> {
+            Thread thread = new Thread( runnable, "topology-refresher" );
+            thread.setDaemon( true );
+
+            return thread;
+        } );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    //Interval should be shorter than the shortest topology TTL, node list is kept for 5 minutes.
+    //Refreshes are only submitted here, the shared scheduler thread doesn't wait for the discovery of slow clusters
+    @Scheduled( initialDelayString = "${health.tool.topology.refresh.initial-delay-millis:10000}",
+            fixedDelayString = "${health.tool.topology.refresh.interval-millis:240000}" )
+    public void refreshTopology() {
+        if ( !enabled ) {
+            return;
+        }
+
+        clusterDao.findAll().forEach( clusterEntity -> {
+            //A cluster still refreshed since the previous run is skipped
+            if ( refreshingClusters.add( clusterEntity.getClusterName() ) ) {
+                refreshExecutor.execute( () -> {
+                    try {
+                        refreshCluster( clusterEntity );
+                    } finally {
+                        refreshingClusters.remove( clusterEntity.getClusterName() );
+                    }
+                } );
+            }
+        } );
+    }
+
+    private void refreshCluster( ClusterEntity clusterEntity ) {
+        String clusterName = clusterEntity.getClusterName();
+        try {
+            long start = System.currentTimeMillis();
+            clusterParamReceiverIFacadeImplResolver.resolveFacadeImpl( clusterEntity.getClusterTypeEnum() ).refreshClusterParams( clusterName );
+            if ( isJarPathRefreshNeeded( clusterName ) ) {
+                yarnServiceHealthCheckAction.refreshExamplesJarPath( clusterEntity );
+                jarPathRefreshedAt.put( clusterName, System.currentTimeMillis() );
+            }
+            logger.info( "Topology of " + clusterName + " refreshed in " + ( System.currentTimeMillis() - start ) + " ms" );
+        } catch ( ImplementationNotResolvedException ex ) {
+            logger.error( "Can't find cluster param receiver for " + clusterEntity.getClusterTypeEnum() + " - " + ex.getMessage() );
+        } catch ( RuntimeException ex ) {
+            logger.error( "Can't refresh topology of " + clusterName, ex );
+        }
+    }
+
+    private boolean isJarPathRefreshNeeded( String clusterName ) {
+        Long refreshedAt = jarPathRefreshedAt.get( clusterName );
+
+        return refreshedAt == null || System.currentTimeMillis() - refreshedAt > TimeUnit.HOURS.toMillis( jarPathIntervalHours );
+    }
+}
@@ -0,0 +1,104 @@
+package com.epam.health.tool.facade.common.cluster.receiver;
+
+import com.epam.facade.model.cluster.receiver.InvalidBuildParamsException;
+import com.epam.facade.model.context.ContextKey;
+import com.epam.health.tool.context.holder.NodesContextHolder;
+import com.epam.health.tool.context.holder.StringContextHolder;
+import com.epam.health.tool.dao.cluster.ClusterDao;
+import com.epam.health.tool.dao.cluster.ClusterTopologyDao;
+import com.epam.health.tool.facade.context.IApplicationContext;
+import com.epam.health.tool.model.ClusterTopologyEntity;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps discovered cluster params in the cluster_topology table, both refreshed ones and ones found by checks. At startup they are put back into the context
+ * as stale but usable values, checks start with them while the topology refresher validates them in background.
+ * Addresses are also checked by the availability probe and the jar path by the jar searchers before use.
+ */
+@Component
+public class ClusterTopologyStore {
+    private final static Logger logger = Logger.getLogger( ClusterTopologyStore.class );
+    private static final String LIST_DELIMITER = ",";
+
+    @Value( "${health.tool.topology.store.max-age-hours:168}" )
+    private long maxAgeHours = 168;
+
+    @Autowired
+    private ClusterTopologyDao clusterTopologyDao;
+    @Autowired
+    private ClusterDao clusterDao;
+    @Autowired
+    private IApplicationContext applicationContext;
+
+    //Value is a String or a collection of Strings, failures are only logged
+    public void save( String clusterName, String paramName, Object paramValue ) {
+        try {
+            ClusterTopologyEntity clusterTopologyEntity = clusterTopologyDao.findByClusterNameAndParamName( clusterName, paramName );
+            if ( clusterTopologyEntity == null ) {
+                clusterTopologyEntity = new ClusterTopologyEntity( clusterName, paramName );
+            }
+            clusterTopologyEntity.setList( paramValue instanceof Collection );
+            clusterTopologyEntity.setParamValue( paramValue instanceof Collection
+                    ? String.join( LIST_DELIMITER, (Collection<String>) paramValue ) : String.valueOf( paramValue ) );
+            clusterTopologyEntity.setDiscoveredAt( new Date() );
+            clusterTopologyDao.save( clusterTopologyEntity );
+        } catch ( RuntimeException ex ) {
+            logger.error( "Can't save " + paramName + " of cluster " + clusterName + " - " + ex.getMessage() );
+        }
+    }
+
+    //Stored params and their context values are dropped, they may point to the old addresses of an edited cluster
+    public void invalidate( String clusterName ) {
+        try {
+            List<ClusterTopologyEntity> clusterTopologyEntities = clusterTopologyDao.findByClusterName( clusterName );
+            clusterTopologyEntities.forEach( this::removeFromContext );
+            clusterTopologyDao.deleteAll( clusterTopologyEntities );
+        } catch ( RuntimeException ex ) {
+            logger.error( "Can't invalidate topology of cluster " + clusterName + " - " + ex.getMessage() );
+        }
+    }
+
+    //Params of removed clusters and params older than max age are skipped
+    public void restore() {
+        try {
+            Date discoveredAfter = new Date( System.currentTimeMillis() - TimeUnit.HOURS.toMillis( maxAgeHours ) );
+            List<ClusterTopologyEntity> clusterTopologyEntities = clusterTopologyDao.findByDiscoveredAtAfter( discoveredAfter );
+            clusterTopologyEntities.stream()
+                    .filter( clusterTopologyEntity -> clusterDao.findByClusterName( clusterTopologyEntity.getClusterName() ) != null )
+                    .forEach( this::restoreParam );
+            logger.info( "Restored " + clusterTopologyEntities.size() + " cluster topology params" );
+        } catch ( RuntimeException ex ) {
+            logger.error( "Can't restore cluster topology - " + ex.getMessage() );
+        }
+    }
+
+    private void removeFromContext( ClusterTopologyEntity clusterTopologyEntity ) {
+        try {
+            applicationContext.removeHolder( ContextKey.ContextKeyBuilder.get().withMajorKey( clusterTopologyEntity.getClusterName() )
+                    .withMinorKey( clusterTopologyEntity.getParamName() )
+                    .withHolderClass( clusterTopologyEntity.isList() ? NodesContextHolder.class : StringContextHolder.class ).build() );
+        } catch ( InvalidBuildParamsException ex ) {
+            logger.error( ex.getMessage() );
+        }
+    }
+
+    private void restoreParam( ClusterTopologyEntity clusterTopologyEntity ) {
+        if ( clusterTopologyEntity.isList() ) {
+            applicationContext.addToContextIfAbsent( clusterTopologyEntity.getClusterName(), clusterTopologyEntity.getParamName(), NodesContextHolder.class,
+                    new NodesContextHolder( new LinkedHashSet<>( Arrays.asList( clusterTopologyEntity.getParamValue().split( LIST_DELIMITER ) ) ) ) );
+        } else {
+            applicationContext.addToContextIfAbsent( clusterTopologyEntity.getClusterName(), clusterTopologyEntity.getParamName(), StringContextHolder.class,
+                    new StringContextHolder( clusterTopologyEntity.getParamValue() ) );
+        }
+    }
+}
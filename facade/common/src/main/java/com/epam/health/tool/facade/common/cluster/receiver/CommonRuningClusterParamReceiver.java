@@ -4,24 +4,31 @@ import com.epam.facade.model.fs.HdfsNamenodeJson;
 import com.epam.facade.model.service.DownloadableFileConstants;
 import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
 import com.epam.health.tool.authentication.http.HttpAuthenticationClient;
+import com.epam.health.tool.context.holder.HdfsNamenodeContextHolder;
 import com.epam.health.tool.context.holder.NodesContextHolder;
 import com.epam.health.tool.context.holder.StringContextHolder;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
 import com.epam.health.tool.facade.context.IApplicationContext;
+import com.epam.health.tool.facade.context.ISingleContextHolder;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.model.ClusterEntity;
 import com.epam.util.common.CheckingParamsUtil;
-import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.StringUtils;
 import com.epam.util.common.json.CommonJsonHandler;
+import com.epam.util.http.AddressAvailabilityProbe;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static com.epam.facade.model.service.DownloadableFileConstants.HdfsProperties.DFS_NAMENODE_HTTPS_ADDRESS;
 import static com.epam.facade.model.service.DownloadableFileConstants.HdfsProperties.DFS_NAMENODE_HTTP_ADDRESS;
@@ -34,17 +41,33 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
     protected HttpAuthenticationClient httpAuthenticationClient;
     protected ClusterDao clusterDao;
     private IApplicationContext applicationContext;
+    @Autowired
+    private ClusterTopologyStore clusterTopologyStore;
+    private final HaStateTracker nameNodeHaStateTracker;
+    private final HaStateTracker resourceManagerHaStateTracker;
 
     private static final String HTTP = "http://";
     private static final String HTTPS = "https://";
+    //No TTL, addresses are kept until they stop answering or aren't active any more, see isActiveAddress
     private static final String RM_ADDRESS_CACHE = "RM_ADDRESS_CACHE";
     private static final String NAME_NODE_ADDRESS_CACHE = "NAME_NODE_ADDRESS_CACHE";
     private static final String NODE_LIST_CACHE = "NODE_LIST_CACHE";
+    private static final String NAME_NODE_INFO_CACHE = "NAME_NODE_INFO_CACHE";
+    private static final String YARN_LOCAL_DIR_CACHE = "YARN_LOCAL_DIR_CACHE";
+    private static final String YARN_LOG_DIR_CACHE = "YARN_LOG_DIR_CACHE";
 
     public CommonRuningClusterParamReceiver(HttpAuthenticationClient httpAuthenticationClient, ClusterDao clusterDao, IApplicationContext applicationContext) {
         this.httpAuthenticationClient = httpAuthenticationClient;
         this.clusterDao = clusterDao;
         this.applicationContext = applicationContext;
+        //Live nodes change with decommissions and restarts
+        this.applicationContext.setMinorKeyTtl( NODE_LIST_CACHE, 5, TimeUnit.MINUTES );
+        //Long enough to be shared by the actions of one health check only
+        this.applicationContext.setMinorKeyTtl( NAME_NODE_INFO_CACHE, 5, TimeUnit.SECONDS );
+        this.applicationContext.setMinorKeyTtl( YARN_LOCAL_DIR_CACHE, 30, TimeUnit.MINUTES );
+        this.applicationContext.setMinorKeyTtl( YARN_LOG_DIR_CACHE, 30, TimeUnit.MINUTES );
+        this.nameNodeHaStateTracker = new HaStateTracker( this::readNameNodeHaState, this::addNodeAddressToCache );
+        this.resourceManagerHaStateTracker = new HaStateTracker( this::readResourceManagerHaState, this::addRmAddressToCache );
     }
 
     @Override
@@ -52,55 +75,116 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
         return getPropertySiteXml( clusterDao.findByClusterName( clusterName ), siteName, propertyName );
     }
 
+    //Found properties only, one site read for all of them where the implementation allows
     @Override
-    public String getYarnLocalDirectory(String clusterName) throws InvalidResponseException {
-        String logDirPropery = getPropertySiteXml( clusterName, DownloadableFileConstants.ServiceFileName.YARN, YARN_NODEMANAGER_LOCAL_DIRS);
+    public Map<String, String> getPropertiesSiteXml( String clusterName, String siteName, Set<String> propertyNames ) throws InvalidResponseException {
+        return getPropertiesSiteXml( clusterDao.findByClusterName( clusterName ), siteName, propertyNames );
+    }
 
-        log().info( "Local dir for cluster - ".concat( clusterName ).concat( " dir - " ).concat( logDirPropery ) );
-        return logDirPropery;
+    @Override
+    public String getYarnLocalDirectory(String clusterName) throws InvalidResponseException {
+        return applicationContext.computeIfAbsent( clusterName, YARN_LOCAL_DIR_CACHE, StringContextHolder.class,
+                () -> saveToStore( clusterName, YARN_LOCAL_DIR_CACHE, loadYarnDirectory( clusterName, YARN_NODEMANAGER_LOCAL_DIRS ) ), null );
     }
 
     @Override
     public String getLogDirectory( String clusterName ) throws InvalidResponseException {
-        String logDirPropery = getPropertySiteXml( clusterName, DownloadableFileConstants.ServiceFileName.YARN, YARN_NODEMANAGER_LOG_DIRS);
-
-        log().info( "Log dir for cluster - ".concat( clusterName ).concat( " dir - " ).concat( logDirPropery ) );
-        return logDirPropery;
+        return applicationContext.computeIfAbsent( clusterName, YARN_LOG_DIR_CACHE, StringContextHolder.class,
+                () -> saveToStore( clusterName, YARN_LOG_DIR_CACHE, loadYarnDirectory( clusterName, YARN_NODEMANAGER_LOG_DIRS ) ), null );
     }
 
+    //Parallel checks of one cluster share a single NameNode call
     public Set<String> getLiveNodes( String clusterName ) throws InvalidResponseException {
-        Set<String> liveNodes = getNodeListFromCache( clusterName );
+        return applicationContext.computeIfAbsent( clusterName, NODE_LIST_CACHE, NodesContextHolder.class,
+                () -> saveToStore( clusterName, NODE_LIST_CACHE, loadLiveNodes( clusterName ) ), Collections.emptySet() );
+    }
 
-        if ( CheckingParamsUtil.isParamListNotNullOrEmpty( liveNodes ) ) {
-            log().info( "Nodes list from cache - ".concat( liveNodes.toString() ) );
-        }
-        else {
-            liveNodes = getHdfsNamenodeJson( clusterName ).getLiveNodes();
-            addNodeListToCache( clusterName, liveNodes );
+    //Values found by checks are persisted like the refreshed ones, so they are restored after a restart as well
+    private <H extends ISingleContextHolder<?>> H saveToStore( String clusterName, String minorKey, H holder ) {
+        if ( holder != null ) {
+            clusterTopologyStore.save( clusterName, minorKey, holder.get() );
         }
 
-        return liveNodes;
+        return holder;
     }
 
-    public HdfsNamenodeJson getHdfsNamenodeJson( String clusterName ) throws InvalidResponseException {
+    //Empty directory is not cached
+    private StringContextHolder loadYarnDirectory( String clusterName, String propertyName ) throws InvalidResponseException {
+        String directory = getPropertySiteXml( clusterName, DownloadableFileConstants.ServiceFileName.YARN, propertyName );
+        log().info( propertyName + " for cluster - " + clusterName + " dir - " + directory );
+
+        return CheckingParamsUtil.isParamsNotNullOrEmpty( directory ) ? new StringContextHolder( directory ) : null;
+    }
+
+    private <T> void refreshParam( String clusterName, String minorKey, IApplicationContext.IContextHolderLoader<T, InvalidResponseException> loader ) {
         try {
-            String url = getNameNodeUrl( clusterName ) + "/jmx?qry=Hadoop:service=NameNode,name=NameNodeInfo";
-            String answer = httpAuthenticationClient.makeAuthenticatedRequest( clusterName, url );
-            HdfsNamenodeJson hdfsUsageJson = CommonJsonHandler.get().getTypedValueFromInnerFieldArrElement(answer, HdfsNamenodeJson.class, "beans");
+            ISingleContextHolder<T> holder = loader.load();
+            if ( holder != null ) {
+                applicationContext.addToContext( clusterName, minorKey, holder.getClass(), saveToStore( clusterName, minorKey, holder ) );
+            }
+        } catch ( InvalidResponseException | RuntimeException ex ) {
+            log().warn( "Can't refresh " + minorKey + " of cluster " + clusterName + " - " + ex.getMessage() );
+        }
+    }
 
-            log().info( "Get for url - ".concat( url ).concat( " answer - \n" ).concat( answer ).concat( "\nHdfsNamenodeUsage:\n" ).concat( hdfsUsageJson.toString() ) );
+    //Empty list is not cached
+    private NodesContextHolder loadLiveNodes( String clusterName ) throws InvalidResponseException {
+        Set<String> liveNodes = getHdfsNamenodeJson( clusterName ).getLiveNodes();
+        log().info( "Nodes list of " + clusterName + " - " + liveNodes );
 
-            return hdfsUsageJson;
+        return CheckingParamsUtil.isParamListNotNullOrEmpty( liveNodes ) ? new NodesContextHolder( liveNodes ) : null;
+    }
+
+    //Live nodes lookup and hdfs statistics of one check share a single NameNodeInfo call
+    public HdfsNamenodeJson getHdfsNamenodeJson( String clusterName ) throws InvalidResponseException {
+        return applicationContext.computeIfAbsent( clusterName, NAME_NODE_INFO_CACHE, HdfsNamenodeContextHolder.class,
+                () -> new HdfsNamenodeContextHolder( loadHdfsNamenodeJson( clusterName ) ), null );
+    }
+
+    private HdfsNamenodeJson loadHdfsNamenodeJson( String clusterName ) throws InvalidResponseException {
+        String nameNodeUrl = getNameNodeUrl( clusterName );
+        String url = nameNodeUrl + "/jmx?qry=Hadoop:service=NameNode,name=NameNodeInfo";
+        HdfsNamenodeJson hdfsUsageJson;
+        try {
+            //Bound while reading, the JMX answer with all live nodes is never held as a string
+            hdfsUsageJson = httpAuthenticationClient.makeAuthenticatedRequest( clusterName, url, true,
+                    content -> CommonJsonHandler.get().readTypedValueFromInnerFieldArrElement( content, HdfsNamenodeJson.class, "beans" ) );
+        }
+        catch ( AuthenticationRequestException ex ) {
+            reportFailedAddress( clusterName, nameNodeUrl );
+            throw new InvalidResponseException( "Can't read NameNodeInfo from url - ".concat( url ), ex );
         }
-        catch ( CommonUtilException | AuthenticationRequestException ex ) {
-            throw new InvalidResponseException( ex );
+
+        if ( hdfsUsageJson == null ) {
+            throw new InvalidResponseException( "NameNodeInfo bean not found for url - ".concat( url ) );
         }
+        log().info( "Get for url - ".concat( url ).concat( " HdfsNamenodeUsage:\n" ).concat( hdfsUsageJson.toString() ) );
+
+        return hdfsUsageJson;
+    }
+
+    //Cached values are replaced only by successfully resolved ones, so checks keep reading them meanwhile
+    @Override
+    public void refreshClusterParams( String clusterName ) {
+        refreshParam( clusterName, NAME_NODE_ADDRESS_CACHE, () -> new StringContextHolder( getRealNameNodeUrl( clusterName ) ) );
+        refreshParam( clusterName, RM_ADDRESS_CACHE, () -> new StringContextHolder( getResourceManagerAddress( clusterName ) ) );
+        refreshParam( clusterName, NODE_LIST_CACHE, () -> loadLiveNodes( clusterName ) );
+        refreshParam( clusterName, YARN_LOCAL_DIR_CACHE, () -> loadYarnDirectory( clusterName, YARN_NODEMANAGER_LOCAL_DIRS ) );
+        refreshParam( clusterName, YARN_LOG_DIR_CACHE, () -> loadYarnDirectory( clusterName, YARN_NODEMANAGER_LOG_DIRS ) );
+    }
+
+    //Possible failover, active instance is looked up again in background
+    @Override
+    public void reportFailedAddress( String clusterName, String address ) {
+        nameNodeHaStateTracker.reportFailure( clusterName, address );
+        resourceManagerHaStateTracker.reportFailure( clusterName, address );
     }
 
+    //Cached address is used only while it answers as the active instance, a standby left after a failover is resolved again
     public String getNameNodeUrl( String clusterName ) throws InvalidResponseException {
         String nameNodeUrl = getNodeAddressFromCache( clusterName );
 
-        if ( isAddressAvailable( nameNodeUrl, clusterName ) ) {
+        if ( isActiveAddress( nameNodeUrl, clusterName, this::readNameNodeHaState ) ) {
             log().info( "From cache namenode url - ".concat( nameNodeUrl ) );
         }
         else {
@@ -114,7 +198,7 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
     public String getActiveResourceManagerAddress( String clusterName ) throws InvalidResponseException {
         String rmAddress = getRmAddressFromCache( clusterName );
 
-        if ( isAddressAvailable( rmAddress, clusterName ) ) {
+        if ( isActiveAddress( rmAddress, clusterName, this::readResourceManagerHaState ) ) {
             log().info( "From cache resource manager url - ".concat( rmAddress ) );
         }
         else {
@@ -128,15 +212,27 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
     protected abstract String getPropertySiteXml( ClusterEntity clusterEntity, String siteName, String propertyName ) throws InvalidResponseException;
     protected abstract Logger log();
 
+    protected Map<String, String> getPropertiesSiteXml( ClusterEntity clusterEntity, String siteName, Set<String> propertyNames ) throws InvalidResponseException {
+        Map<String, String> properties = new HashMap<>();
+        for ( String propertyName : propertyNames ) {
+            String propertyValue = getPropertySiteXml( clusterEntity, siteName, propertyName );
+            if ( propertyValue != null ) {
+                properties.put( propertyName, propertyValue );
+            }
+        }
+
+        return properties;
+    }
+
     private String getRealNameNodeUrl( String clusterName ) throws InvalidResponseException {
         String nameNodeUrl = getPropertySiteXml( clusterName, DownloadableFileConstants.ServiceFileName.HDFS, DFS_NAMENODE_HTTP_ADDRESS );
 
         if (CheckingParamsUtil.isParamsNullOrEmpty(nameNodeUrl)) {
             //possibly ha mode for rm
             String[] rmIds = getHAIds( clusterName, "dfs.ha.namenodes." + clusterName, DownloadableFileConstants.ServiceFileName.HDFS );
-            nameNodeUrl = getHAWebAppAddress( rmIds, clusterName, DFS_NAMENODE_HTTP_ADDRESS.concat( "." ).concat( clusterName ), DownloadableFileConstants.ServiceFileName.HDFS, HTTP );
+            nameNodeUrl = getHAWebAppAddress( rmIds, clusterName, DFS_NAMENODE_HTTP_ADDRESS.concat( "." ).concat( clusterName ), DownloadableFileConstants.ServiceFileName.HDFS, HTTP, nameNodeHaStateTracker );
             if ( CheckingParamsUtil.isParamsNullOrEmpty( nameNodeUrl ) ) {
-                nameNodeUrl = getHAWebAppAddress( rmIds, clusterName, DFS_NAMENODE_HTTPS_ADDRESS.concat( "." ).concat( clusterName ), DownloadableFileConstants.ServiceFileName.HDFS, HTTPS );
+                nameNodeUrl = getHAWebAppAddress( rmIds, clusterName, DFS_NAMENODE_HTTPS_ADDRESS.concat( "." ).concat( clusterName ), DownloadableFileConstants.ServiceFileName.HDFS, HTTPS, nameNodeHaStateTracker );
             }
         }
         else {
@@ -153,17 +249,15 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
         if (CheckingParamsUtil.isParamsNullOrEmpty(rmAddress)) {
             //possibly ha mode for rm
             String[] rmIds = getHAIds( clusterName, YARN_RESOURCEMANAGER_HA_RM_IDS, DownloadableFileConstants.ServiceFileName.YARN );
-            rmAddress = getHAWebAppAddress( rmIds, clusterName, YARN_RESOURCEMANAGER_WEBAPP_ADDRESS, DownloadableFileConstants.ServiceFileName.YARN, HTTP );
+            rmAddress = getHAWebAppAddress( rmIds, clusterName, YARN_RESOURCEMANAGER_WEBAPP_ADDRESS, DownloadableFileConstants.ServiceFileName.YARN, HTTP, resourceManagerHaStateTracker );
             if ( CheckingParamsUtil.isParamsNullOrEmpty( rmAddress ) ) {
-                rmAddress = getHAWebAppAddress( rmIds, clusterName, YARN_RESOURCEMANAGER_HTTPS_WEBAPP_ADDRESS, DownloadableFileConstants.ServiceFileName.YARN, HTTPS );
+                rmAddress = getHAWebAppAddress( rmIds, clusterName, YARN_RESOURCEMANAGER_HTTPS_WEBAPP_ADDRESS, DownloadableFileConstants.ServiceFileName.YARN, HTTPS, resourceManagerHaStateTracker );
             }
         }
         else {
             rmAddress = HTTP.concat( rmAddress );
         }
 
-        System.out.println("rm address: " + rmAddress);
-
         return isAddressAvailable( rmAddress, clusterName ) ? rmAddress
                 : throwAddressNotFoundException( "RM address url not found for cluster - ".concat( clusterName ) );
     }
@@ -178,54 +272,80 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
         return applicationContext.getFromContext( clusterName, NAME_NODE_ADDRESS_CACHE, StringContextHolder.class, StringUtils.EMPTY );
     }
 
-    private Set<String> getNodeListFromCache(String clusterName ) {
-        return applicationContext.getFromContext( clusterName, NODE_LIST_CACHE, NodesContextHolder.class, Collections.emptySet());
-    }
-
     private void addRmAddressToCache( String clusterName, String rmAddress ) {
-        applicationContext.addToContext( clusterName, RM_ADDRESS_CACHE, StringContextHolder.class, new StringContextHolder( rmAddress ));
+        applicationContext.addToContext( clusterName, RM_ADDRESS_CACHE, StringContextHolder.class,
+                saveToStore( clusterName, RM_ADDRESS_CACHE, new StringContextHolder( rmAddress ) ) );
     }
 
     private void addNodeAddressToCache( String clusterName, String nodeAddress ) {
-        applicationContext.addToContext( clusterName, NAME_NODE_ADDRESS_CACHE, StringContextHolder.class, new StringContextHolder( nodeAddress ));
+        applicationContext.addToContext( clusterName, NAME_NODE_ADDRESS_CACHE, StringContextHolder.class,
+                saveToStore( clusterName, NAME_NODE_ADDRESS_CACHE, new StringContextHolder( nodeAddress ) ) );
     }
+    /*--------------------------------------------------------------------------------------------------------------------------------------*/
 
-    private void addNodeListToCache( String clusterName, Set<String> nodeList ) {
-        applicationContext.addToContext( clusterName, NODE_LIST_CACHE, NodesContextHolder.class, new NodesContextHolder( nodeList ));
+    private String getHAWebAppAddress( String[] rmIds, String clusterName, String webAppPrefix, String serviceFileName, String httpPrefix,
+                                       HaStateTracker haStateTracker ) {
+        List<String> webappPropertyNames = Arrays.stream( rmIds ).map( rmId -> createHAWebAppProperty( webAppPrefix, rmId ) )
+                .filter( CheckingParamsUtil::isParamNotEmpty ).collect( Collectors.toList() );
+        Map<String, String> haAddresses = getHAAddresses( webappPropertyNames, clusterName, serviceFileName );
+        List<String> candidates = webappPropertyNames.stream().map( haAddresses::get )
+                .map( address -> createUrl( httpPrefix, address ) )
+                .filter( CheckingParamsUtil::isParamNotEmpty )
+                .collect( Collectors.toList() );
+
+        return candidates.isEmpty() ? StringUtils.EMPTY : haStateTracker.resolveActive( clusterName, candidates );
     }
-    /*--------------------------------------------------------------------------------------------------------------------------------------*/
 
-    private String getHAWebAppAddress( String[] rmIds, String clusterName, String webAppPrefix, String serviceFileName, String httpPrefix ) {
-        ForkJoinPool forkJoinPool = new ForkJoinPool( rmIds.length );
+    private HaStateTracker.HaState readNameNodeHaState( String clusterName, String nameNodeUrl ) {
+        return readHaState( clusterName, nameNodeUrl + "/jmx?qry=Hadoop:service=NameNode,name=NameNodeStatus", "beans", "State" );
+    }
 
-        try {
-            return forkJoinPool.submit( () -> Arrays.stream( rmIds ).parallel().map( rmId -> createHAWebAppProperty( webAppPrefix, rmId ) )
-                    .map( webappPropertyName -> getHAAddress( webappPropertyName, clusterName, serviceFileName ) )
-                    .map( address -> createUrl( httpPrefix, address ) )
-                    .filter( rmAddress -> isAddressAvailable( rmAddress, clusterName ) )
-                    .findFirst().orElse( StringUtils.EMPTY ) ).get();
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
+    private HaStateTracker.HaState readResourceManagerHaState( String clusterName, String rmAddress ) {
+        return readHaState( clusterName, rmAddress + "/ws/v1/cluster/info", "clusterInfo", "haState" );
+    }
+
+    //Streamed request, HA state must never come from the response cache
+    private HaStateTracker.HaState readHaState( String clusterName, String url, String... haStateFieldChain ) {
+        if ( !AddressAvailabilityProbe.get().isAvailable( url ) ) {
+            return HaStateTracker.HaState.UNAVAILABLE;
         }
-        finally {
-            //Is it necessary?
-            if ( !forkJoinPool.isShutdown() ) {
-                forkJoinPool.shutdownNow();
+
+        try {
+            String haState = httpAuthenticationClient.makeAuthenticatedRequest( clusterName, url, true,
+                    content -> CommonJsonHandler.get().readTypedValueFromInnerField( content, String.class, haStateFieldChain ) );
+            if ( "active".equalsIgnoreCase( haState ) ) {
+                return HaStateTracker.HaState.ACTIVE;
             }
+
+            return "standby".equalsIgnoreCase( haState ) ? HaStateTracker.HaState.STANDBY : HaStateTracker.HaState.UNKNOWN;
+        }
+        catch ( AuthenticationRequestException ex ) {
+            return HaStateTracker.HaState.UNAVAILABLE;
+        }
+    }
+
+    //Instances without HA report themselves active as well, an instance that doesn't report its state is trusted
+    private boolean isActiveAddress( String address, String clusterName, HaStateTracker.IHaStateReader haStateReader ) {
+        if ( !isAddressAvailable( address, clusterName ) ) {
+            return false;
         }
 
-        return StringUtils.EMPTY;
+        HaStateTracker.HaState haState = haStateReader.readHaState( clusterName, address );
+        if ( haState == HaStateTracker.HaState.ACTIVE || haState == HaStateTracker.HaState.UNKNOWN ) {
+            return true;
+        }
+        log().info( "Cached address " + address + " of cluster " + clusterName + " is " + haState + ", resolving active one" );
+
+        return false;
     }
 
-    private String getHAAddress( String webappPropertyName, String clusterName, String serviceFileName ) {
-        log().info( "Extract property - ".concat( webappPropertyName ).concat( " from cluster - " ).concat( clusterName )
+    private Map<String, String> getHAAddresses( List<String> webappPropertyNames, String clusterName, String serviceFileName ) {
+        log().info( "Extract properties - ".concat( webappPropertyNames.toString() ).concat( " from cluster - " ).concat( clusterName )
                 .concat( " from file - " ).concat( serviceFileName ) );
         try {
-            return CheckingParamsUtil.isParamsNotNullOrEmpty( webappPropertyName )
-                    ? getPropertySiteXml( clusterName, serviceFileName, webappPropertyName )
-                    : StringUtils.EMPTY;
+            return getPropertiesSiteXml( clusterName, serviceFileName, new HashSet<>( webappPropertyNames ) );
         } catch (InvalidResponseException e) {
-            return StringUtils.EMPTY;
+            return Collections.emptyMap();
         }
     }
 
@@ -243,22 +363,14 @@ public abstract class CommonRuningClusterParamReceiver implements IRunningCluste
         return CheckingParamsUtil.isParamsNotNullOrEmpty( httpPrefix, address ) ? httpPrefix.concat( address ) : StringUtils.EMPTY;
     }
 
+    //Tcp connect only, the result is cached and dropped when a real request to the address fails
     private boolean isAddressAvailable( String rmAddress, String clusterName ) {
-        try {
-            if ( CheckingParamsUtil.isParamsNotNullOrEmpty( rmAddress, clusterName ) ) {
-                log().info( "Check address - ".concat( rmAddress ).concat( " from cluster - " ).concat( clusterName ) );
-                this.httpAuthenticationClient.makeAuthenticatedRequest( clusterName, rmAddress );
-            }
-            else {
-                return false;
-            }
-        }
-        catch ( AuthenticationRequestException ex ) {
-            //Catch Connection refused exception message
+        if ( CheckingParamsUtil.isParamsNullOrEmpty( rmAddress, clusterName ) ) {
             return false;
         }
+        log().info( "Check address - ".concat( rmAddress ).concat( " from cluster - " ).concat( clusterName ) );
 
-        return true;
+        return AddressAvailabilityProbe.get().isAvailable( rmAddress );
     }
 
     private String throwAddressNotFoundException( String message ) throws InvalidResponseException {
@@ -1,13 +1,13 @@
 package com.epam.health.tool.facade.common.cluster.receiver;
 
 import com.epam.facade.model.cluster.receiver.WebAppAddressParam;
-import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
 import com.epam.health.tool.authentication.http.HttpAuthenticationClient;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
 import com.epam.health.tool.facade.cluster.receiver.ISingleParamReceiver;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.util.common.CheckingParamsUtil;
 import com.epam.util.common.StringUtils;
+import com.epam.util.http.AddressAvailabilityProbe;
 import org.slf4j.Logger;
 
 import java.util.Arrays;
@@ -71,19 +71,14 @@ public abstract class CommonWebAddressReceiver implements ISingleParamReceiver<S
         return CheckingParamsUtil.isParamsNotNullOrEmpty( httpPrefix, address ) ? httpPrefix.concat( address ) : StringUtils.EMPTY;
     }
 
+    //Tcp connect only, the result is cached and dropped when a real request to the address fails
     private boolean isAddressAvailable( String rmAddress, String clusterName ) {
-        log().info( "Check address - ".concat( rmAddress ).concat( " from cluster - " ).concat( clusterName ) );
-        try {
-            if ( CheckingParamsUtil.isParamsNotNullOrEmpty( rmAddress, clusterName ) ) {
-                this.httpAuthenticationClient.makeAuthenticatedRequest( clusterName, rmAddress );
-            }
-        }
-        catch ( AuthenticationRequestException ex ) {
-            //Catch Connection refused exception message
+        if ( CheckingParamsUtil.isParamsNullOrEmpty( rmAddress, clusterName ) ) {
             return false;
         }
+        log().info( "Check address - ".concat( rmAddress ).concat( " from cluster - " ).concat( clusterName ) );
 
-        return true;
+        return AddressAvailabilityProbe.get().isAvailable( rmAddress );
     }
 
     private String throwAddressNotFoundException( String message ) throws InvalidResponseException {
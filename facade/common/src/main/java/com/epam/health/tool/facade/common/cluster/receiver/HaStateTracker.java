@@ -0,0 +1,121 @@
+package com.epam.health.tool.facade.common.cluster.receiver;
+
+import com.epam.util.common.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the active instance of an HA service (NameNode, ResourceManager) by asking every candidate for its HA state
+ * in parallel, and remembers its candidates. After a failed call to the active instance the candidates are asked again
+ * in background and the new active address is handed to the listener, so checks don't go through a standby.
+ */
+class HaStateTracker {
+    private final static Logger logger = Logger.getLogger( HaStateTracker.class );
+    private static final ExecutorService haStateExecutor = Executors.newCachedThreadPool( runnable -> {
+        Thread thread = new Thread( runnable, "ha-state-tracker" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
+    private final IHaStateReader haStateReader;
+    private final BiConsumer<String, String> activeChangedListener;
+    private final Map<String, TrackedService> trackedServices = new ConcurrentHashMap<>();
+    //Kept per cluster, resolveActive replaces the tracked service while a refresh runs
+    private final Map<String, AtomicBoolean> refreshingClusters = new ConcurrentHashMap<>();
+
+    /**
+     * @param activeChangedListener gets the cluster name and the new active address after a background refresh
+     */
+    HaStateTracker( IHaStateReader haStateReader, BiConsumer<String, String> activeChangedListener ) {
+        this.haStateReader = haStateReader;
+        this.activeChangedListener = activeChangedListener;
+    }
+
+    //Active candidate or, when no candidate reports its state, the first responding one
+    String resolveActive( String clusterName, List<String> candidates ) {
+        List<CompletableFuture<HaState>> haStates = candidates.stream()
+                .map( candidate -> CompletableFuture.supplyAsync( () -> readHaState( clusterName, candidate ), haStateExecutor ) )
+                .collect( Collectors.toList() );
+
+        String activeAddress = StringUtils.EMPTY;
+        String respondingAddress = StringUtils.EMPTY;
+        for ( int i = 0; i < candidates.size(); i++ ) {
+            HaState haState = haStates.get( i ).join();
+            if ( haState == HaState.ACTIVE && activeAddress.isEmpty() ) {
+                activeAddress = candidates.get( i );
+            } else if ( haState == HaState.UNKNOWN && respondingAddress.isEmpty() ) {
+                respondingAddress = candidates.get( i );
+            }
+        }
+
+        String resolvedAddress = activeAddress.isEmpty() ? respondingAddress : activeAddress;
+        trackedServices.put( clusterName, new TrackedService( candidates, resolvedAddress ) );
+        logger.info( "Active address of " + clusterName + " among " + candidates + " - " + resolvedAddress );
+
+        return resolvedAddress;
+    }
+
+    //Only the first failure of the current active address starts a refresh
+    void reportFailure( String clusterName, String address ) {
+        TrackedService trackedService = trackedServices.get( clusterName );
+        if ( trackedService == null || !trackedService.activeAddress.equals( address ) ) {
+            return;
+        }
+
+        AtomicBoolean refreshing = refreshingClusters.computeIfAbsent( clusterName, key -> new AtomicBoolean( false ) );
+        if ( !refreshing.compareAndSet( false, true ) ) {
+            return;
+        }
+
+        haStateExecutor.execute( () -> {
+            try {
+                String activeAddress = resolveActive( clusterName, trackedService.candidates );
+                if ( !activeAddress.isEmpty() && !activeAddress.equals( address ) ) {
+                    logger.info( "Failover of " + clusterName + " from " + address + " to " + activeAddress );
+                    activeChangedListener.accept( clusterName, activeAddress );
+                }
+            } finally {
+                refreshing.set( false );
+            }
+        } );
+    }
+
+    private HaState readHaState( String clusterName, String candidate ) {
+        try {
+            return haStateReader.readHaState( clusterName, candidate );
+        } catch ( RuntimeException ex ) {
+            logger.info( "Can't read ha state of " + candidate + " - " + ex.getMessage() );
+
+            return HaState.UNAVAILABLE;
+        }
+    }
+
+    enum HaState {
+        ACTIVE, STANDBY, UNKNOWN, UNAVAILABLE
+    }
+
+    @FunctionalInterface
+    interface IHaStateReader {
+        HaState readHaState( String clusterName, String address );
+    }
+
+    private static class TrackedService {
+        private final List<String> candidates;
+        private final String activeAddress;
+
+        private TrackedService( List<String> candidates, String activeAddress ) {
+            this.candidates = candidates;
+            this.activeAddress = activeAddress;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.epam.health.tool.facade.common.node;
+
+@FunctionalInterface
+public interface INodeTask<T> {
+    T execute( String node ) throws Exception;
+}
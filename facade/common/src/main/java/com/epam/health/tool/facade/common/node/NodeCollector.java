@@ -0,0 +1,135 @@
+package com.epam.health.tool.facade.common.node;
+
+import com.epam.facade.model.exception.InvalidResponseException;
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.facade.model.exception.ImplementationNotResolvedException;
+import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
+import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
+import com.epam.health.tool.model.ClusterEntity;
+import com.epam.util.common.CommonUtilException;
+import com.epam.util.common.json.CommonJsonHandler;
+import com.epam.util.ssh.delegating.SshExecResult;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Gathers disk usage, daemon log directories and load average of a node with one ssh exec.
+ * The collector script is uploaded to the node once under a checksum name, a new script version gets a new file.
+ * Reports go through the ssh command cache. Every report covers the yarn local directories of the cluster, so the
+ * command line is the same for all callers and actions asking the same node share one execution.
+ */
+@Component
+public class NodeCollector {
+    private final static Logger logger = Logger.getLogger( NodeCollector.class );
+    private static final String SCRIPT_RESOURCE = "/scripts/node-collector.sh";
+    //Relative to the ssh user home
+    private static final String REMOTE_SCRIPT_DIRECTORY = ".health-tool/";
+    private static final int SCRIPT_MISSING_EXIT_CODE = 97;
+
+    @Autowired
+    private SshAuthenticationClient sshAuthenticationClient;
+    @Autowired
+    private IFacadeImplResolver<IRunningClusterParamReceiver> runningClusterParamImplResolver;
+
+    private final byte[] script = readScript();
+    private final String remoteScriptPath = REMOTE_SCRIPT_DIRECTORY + "node-collector-" + checksum( script ) + ".sh";
+
+    public NodeCollectorReport collect( ClusterEntity clusterEntity, String node ) throws InvalidResponseException {
+        return collect( clusterEntity, node, getYarnLocalDirectories( clusterEntity ) );
+    }
+
+    private NodeCollectorReport collect( ClusterEntity clusterEntity, String node, Collection<String> directories ) throws InvalidResponseException {
+        String command = createCollectCommand( directories );
+        try {
+            SshExecResult sshExecResult = sshAuthenticationClient.executeCachedCommand( clusterEntity, command, node );
+            if ( sshExecResult.getExitCode() == SCRIPT_MISSING_EXIT_CODE ) {
+                sshAuthenticationClient.invalidateCachedCommand( clusterEntity, command, node );
+                logger.info( "Uploading node collector to " + node + ":" + remoteScriptPath );
+                sshAuthenticationClient.uploadFile( clusterEntity, script, remoteScriptPath, node );
+                sshExecResult = sshAuthenticationClient.executeCachedCommand( clusterEntity, command, node );
+            }
+
+            return parseReport( node, sshExecResult );
+        } catch ( AuthenticationRequestException ex ) {
+            throw new InvalidResponseException( ex );
+        }
+    }
+
+    //Report without disk usage is still useful for log directories, so resolving errors aren't propagated
+    private List<String> getYarnLocalDirectories( ClusterEntity clusterEntity ) {
+        try {
+            String localDirProperty = runningClusterParamImplResolver.resolveFacadeImpl( clusterEntity.getClusterTypeEnum().name() )
+                    .getYarnLocalDirectory( clusterEntity.getClusterName() );
+
+            return localDirProperty == null ? Collections.emptyList() : Arrays.stream( localDirProperty.split( "," ) ).map( String::trim )
+                    .filter( directory -> !directory.isEmpty() ).collect( Collectors.toList() );
+        } catch ( InvalidResponseException | ImplementationNotResolvedException ex ) {
+            logger.warn( "Can't resolve yarn local directories of " + clusterEntity.getClusterName() + " - " + ex.getMessage() );
+            return Collections.emptyList();
+        }
+    }
+
+    private String createCollectCommand( Collection<String> directories ) {
+        return "[ -r " + remoteScriptPath + " ] || exit " + SCRIPT_MISSING_EXIT_CODE + "; sh " + remoteScriptPath
+                + directories.stream().map( this::quote ).collect( Collectors.joining( " ", " ", "" ) );
+    }
+
+    private NodeCollectorReport parseReport( String node, SshExecResult sshExecResult ) throws InvalidResponseException {
+        try {
+            NodeCollectorReport nodeCollectorReport = CommonJsonHandler.get().getTypedValue( sshExecResult.getOutMessage().trim(), NodeCollectorReport.class );
+            if ( nodeCollectorReport == null ) {
+                throw new InvalidResponseException( "Node collector returned invalid report on " + node + " - " + sshExecResult.getErrMessage() );
+            }
+
+            return nodeCollectorReport;
+        } catch ( CommonUtilException ex ) {
+            throw new InvalidResponseException( ex );
+        }
+    }
+
+    private String quote( String argument ) {
+        return "'" + argument.replace( "'", "'\\''" ) + "'";
+    }
+
+    private static byte[] readScript() {
+        try ( InputStream in = NodeCollector.class.getResourceAsStream( SCRIPT_RESOURCE ) ) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[ 4096 ];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 ) {
+                content.write( buffer, 0, read );
+            }
+
+            return content.toByteArray();
+        } catch ( IOException ex ) {
+            throw new UncheckedIOException( "Can't read " + SCRIPT_RESOURCE, ex );
+        }
+    }
+
+    private static String checksum( byte[] content ) {
+        try {
+            StringBuilder checksum = new StringBuilder();
+            for ( byte digestByte : MessageDigest.getInstance( "SHA-256" ).digest( content ) ) {
+                checksum.append( String.format( "%02x", digestByte ) );
+            }
+
+            return checksum.substring( 0, 16 );
+        } catch ( NoSuchAlgorithmException ex ) {
+            throw new IllegalStateException( ex );
+        }
+    }
+}
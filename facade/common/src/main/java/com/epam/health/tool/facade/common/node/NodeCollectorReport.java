@@ -0,0 +1,125 @@
+package com.epam.health.tool.facade.common.node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JSON document printed by the node collector script.
+ */
+public class NodeCollectorReport {
+    private List<Double> loadAverage = new ArrayList<>();
+    private List<DiskUsage> disks = new ArrayList<>();
+    private List<LogDirectory> logDirectories = new ArrayList<>();
+
+    public List<Double> getLoadAverage() {
+        return loadAverage;
+    }
+
+    public void setLoadAverage(List<Double> loadAverage) {
+        this.loadAverage = loadAverage;
+    }
+
+    public List<DiskUsage> getDisks() {
+        return disks;
+    }
+
+    public void setDisks(List<DiskUsage> disks) {
+        this.disks = disks;
+    }
+
+    public List<LogDirectory> getLogDirectories() {
+        return logDirectories;
+    }
+
+    public void setLogDirectories(List<LogDirectory> logDirectories) {
+        this.logDirectories = logDirectories;
+    }
+
+    public Optional<String> findLogDirectory( String logProperty ) {
+        return logDirectories.stream().filter( logDirectory -> logProperty.equals( logDirectory.getProperty() ) )
+                .map( LogDirectory::getValue ).findFirst();
+    }
+
+    public Optional<DiskUsage> findDiskUsage( String directory ) {
+        return disks.stream().filter( diskUsage -> directory.equals( diskUsage.getDirectory() ) ).findFirst();
+    }
+
+    public static class DiskUsage {
+        private String directory;
+        private String mount;
+        private long totalKb;
+        private long usedKb;
+        private long availableKb;
+        private int usedPercent;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public String getMount() {
+            return mount;
+        }
+
+        public void setMount(String mount) {
+            this.mount = mount;
+        }
+
+        public long getTotalKb() {
+            return totalKb;
+        }
+
+        public void setTotalKb(long totalKb) {
+            this.totalKb = totalKb;
+        }
+
+        public long getUsedKb() {
+            return usedKb;
+        }
+
+        public void setUsedKb(long usedKb) {
+            this.usedKb = usedKb;
+        }
+
+        public long getAvailableKb() {
+            return availableKb;
+        }
+
+        public void setAvailableKb(long availableKb) {
+            this.availableKb = availableKb;
+        }
+
+        public int getUsedPercent() {
+            return usedPercent;
+        }
+
+        public void setUsedPercent(int usedPercent) {
+            this.usedPercent = usedPercent;
+        }
+    }
+
+    public static class LogDirectory {
+        private String property;
+        private String value;
+
+        public String getProperty() {
+            return property;
+        }
+
+        public void setProperty(String property) {
+            this.property = property;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
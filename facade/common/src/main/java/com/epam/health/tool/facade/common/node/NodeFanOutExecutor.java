@@ -0,0 +1,127 @@
+package com.epam.health.tool.facade.common.node;
+
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs a task on every node of a cluster in parallel and collects per-node results and errors.
+ * Concurrency is bounded per cluster and per host, a node running longer than the timeout is interrupted
+ * and reported with a TimeoutException, other nodes still return their results.
+ */
+@Component
+public class NodeFanOutExecutor {
+    private final static Logger logger = Logger.getLogger( NodeFanOutExecutor.class );
+
+    @Value( "${health.tool.node.fan-out.cluster-parallelism:16}" )
+    private int clusterParallelism = 16;
+    @Value( "${health.tool.node.fan-out.host-parallelism:2}" )
+    private int hostParallelism = 2;
+    @Value( "${health.tool.node.fan-out.node-timeout-seconds:120}" )
+    private long nodeTimeoutSeconds = 120;
+
+    private final Map<String, Semaphore> clusterPermits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final ExecutorService executorService = Executors.newCachedThreadPool( createThreadFactory( "node-fan-out" ) );
+    private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor( createThreadFactory( "node-fan-out-timeout" ) );
+
+    public <T> NodeFanOutResult<T> execute( String clusterName, Collection<String> nodes, INodeTask<T> nodeTask ) {
+        return execute( clusterName, nodes, nodeTask, nodeTimeoutSeconds, TimeUnit.SECONDS );
+    }
+
+    public <T> NodeFanOutResult<T> execute( String clusterName, Collection<String> nodes, INodeTask<T> nodeTask, long nodeTimeout, TimeUnit timeUnit ) {
+        Map<String, CompletableFuture<T>> nodeFutures = new LinkedHashMap<>();
+        nodes.forEach( node -> nodeFutures.put( node, submit( clusterName, node, nodeTask, timeUnit.toMillis( nodeTimeout ) ) ) );
+
+        NodeFanOutResult<T> nodeFanOutResult = new NodeFanOutResult<>();
+        nodeFutures.forEach( ( node, nodeFuture ) -> {
+            try {
+                nodeFanOutResult.addResult( node, nodeFuture.join() );
+            } catch ( CompletionException | CancellationException ex ) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                logger.error( "Task failed on node " + node + " of cluster " + clusterName + " - " + cause.getMessage() );
+                nodeFanOutResult.addError( node, cause );
+            }
+        } );
+
+        return nodeFanOutResult;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+        timeoutScheduler.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit( String clusterName, String node, INodeTask<T> nodeTask, long timeoutMillis ) {
+        CompletableFuture<T> nodeFuture = new CompletableFuture<>();
+        executorService.execute( () -> runWithPermits( clusterName, node, nodeTask, timeoutMillis, nodeFuture ) );
+
+        return nodeFuture;
+    }
+
+    private <T> void runWithPermits( String clusterName, String node, INodeTask<T> nodeTask, long timeoutMillis, CompletableFuture<T> nodeFuture ) {
+        Semaphore clusterPermit = clusterPermits.computeIfAbsent( clusterName, key -> new Semaphore( clusterParallelism, true ) );
+        Semaphore hostPermit = hostPermits.computeIfAbsent( node, key -> new Semaphore( hostParallelism, true ) );
+
+        try {
+            clusterPermit.acquire();
+            try {
+                hostPermit.acquire();
+                try {
+                    runWithTimeout( node, nodeTask, timeoutMillis, nodeFuture );
+                } finally {
+                    hostPermit.release();
+                }
+            } finally {
+                clusterPermit.release();
+            }
+        } catch ( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+            nodeFuture.completeExceptionally( ex );
+        }
+    }
+
+    private <T> void runWithTimeout( String node, INodeTask<T> nodeTask, long timeoutMillis, CompletableFuture<T> nodeFuture ) {
+        Thread worker = Thread.currentThread();
+        Object runningLock = new Object();
+        boolean[] finished = { false };
+
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule( () -> {
+            synchronized ( runningLock ) {
+                if ( !finished[0] && nodeFuture.completeExceptionally(
+                        new TimeoutException( "Node " + node + " did not respond in " + timeoutMillis + " ms" ) ) ) {
+                    worker.interrupt();
+                }
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS );
+
+        try {
+            nodeFuture.complete( nodeTask.execute( node ) );
+        } catch ( Exception ex ) {
+            nodeFuture.completeExceptionally( ex );
+        } finally {
+            synchronized ( runningLock ) {
+                finished[0] = true;
+            }
+            timeout.cancel( false );
+            //Pool thread must not keep the timeout interruption
+            Thread.interrupted();
+        }
+    }
+
+    private static ThreadFactory createThreadFactory( String name ) {
+        return runnable -> {
+            Thread thread = new Thread( runnable, name );
+            thread.setDaemon( true );
+
+            return thread;
+        };
+    }
+}
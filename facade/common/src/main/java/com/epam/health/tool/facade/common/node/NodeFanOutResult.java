@@ -0,0 +1,35 @@
+package com.epam.health.tool.facade.common.node;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+public class NodeFanOutResult<T> {
+    private final Map<String, T> results = new LinkedHashMap<>();
+    private final Map<String, Throwable> errors = new LinkedHashMap<>();
+
+    public Map<String, T> getResults() {
+        return Collections.unmodifiableMap( results );
+    }
+
+    public Map<String, Throwable> getErrors() {
+        return Collections.unmodifiableMap( errors );
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public boolean isTimedOut( String node ) {
+        return errors.get( node ) instanceof TimeoutException;
+    }
+
+    void addResult( String node, T result ) {
+        results.put( node, result );
+    }
+
+    void addError( String node, Throwable error ) {
+        errors.put( node, error );
+    }
+}
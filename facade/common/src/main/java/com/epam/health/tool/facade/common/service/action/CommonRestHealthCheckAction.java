@@ -1,6 +1,7 @@
 package com.epam.health.tool.facade.common.service.action;
 
 import com.epam.facade.model.accumulator.HealthCheckResultsAccumulator;
+import com.epam.health.tool.authentication.http.AsyncHttpAuthenticationClient;
 import com.epam.health.tool.authentication.http.HttpAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
@@ -8,11 +9,15 @@ import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.facade.service.action.IServiceHealthCheckAction;
 import com.epam.health.tool.model.ClusterEntity;
 import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Mono;
 
 public abstract class CommonRestHealthCheckAction<T> implements IServiceHealthCheckAction {
     @Autowired
     protected HttpAuthenticationClient httpAuthenticationClient;
 
+    @Autowired
+    protected AsyncHttpAuthenticationClient asyncHttpAuthenticationClient;
+
     @Autowired
     protected ClusterDao clusterDao;
 
@@ -25,6 +30,21 @@ public abstract class CommonRestHealthCheckAction<T> implements IServiceHealthCh
         }
     }
 
+    //Completes when the result is saved to the accumulator, errors are InvalidResponseException
+    public Mono<Void> performHealthCheckAsync( String clusterName, HealthCheckResultsAccumulator healthCheckResultsAccumulator ) {
+        return Mono.fromCallable( () -> clusterDao.findByClusterName( clusterName ) ).subscribeOn( HealthCheckSchedulers.blockingChecks() )
+                .flatMap( clusterEntity -> performRestHealthCheckAsync( healthCheckResultsAccumulator, clusterEntity ) )
+                .doOnNext( healthCheckResult -> saveClusterHealthSummaryToAccumulator( healthCheckResultsAccumulator, healthCheckResult ) )
+                .onErrorMap( ex -> !( ex instanceof InvalidResponseException ), InvalidResponseException::new )
+                .then();
+    }
+
+    //Override with a non-blocking implementation, by default the blocking check holds a thread of the bounded scheduler
+    protected Mono<T> performRestHealthCheckAsync( HealthCheckResultsAccumulator healthCheckResultsAccumulator, ClusterEntity clusterEntity ) {
+        return Mono.fromCallable( () -> performRestHealthCheck( healthCheckResultsAccumulator, clusterEntity ) )
+                .subscribeOn( HealthCheckSchedulers.blockingChecks() );
+    }
+
     //Use for FS actions
     protected abstract T performRestHealthCheck(HealthCheckResultsAccumulator healthCheckResultsAccumulator, ClusterEntity clusterEntity) throws InvalidResponseException, ImplementationNotResolvedException;
 
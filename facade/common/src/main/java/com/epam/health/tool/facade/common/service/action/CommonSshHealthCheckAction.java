@@ -2,35 +2,44 @@ package com.epam.health.tool.facade.common.service.action;
 
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.health.tool.authentication.kerberos.RemoteKerberosTicketCache;
 import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.service.action.IServiceHealthCheckAction;
 import com.epam.health.tool.model.ClusterEntity;
-import com.epam.util.common.CheckingParamsUtil;
+import com.epam.util.ssh.delegating.ISshLineListener;
+import com.epam.util.ssh.delegating.SshExecResult;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Objects;
-
 public abstract class CommonSshHealthCheckAction implements IServiceHealthCheckAction {
     @Autowired
     protected SshAuthenticationClient sshAuthenticationClient;
     @Autowired
     protected ClusterDao clusterDao;
+    @Autowired
+    private RemoteKerberosTicketCache remoteKerberosTicketCache;
+
+    protected SshExecResult executeCommandWithKinitIfNecessary( ClusterEntity clusterEntity, String command ) throws InvalidResponseException {
+        return executeCommandWithKinitIfNecessary( clusterEntity, command,
+                fullCommand -> sshAuthenticationClient.executeCommand( clusterEntity, fullCommand ) );
+    }
 
-    protected void kinitOnClusterIfNecessary( ClusterEntity clusterEntity ) throws InvalidResponseException {
+    //A command guarded by klist exits before any output when the ticket is missing, so it is safe to stream and repeat
+    protected SshExecResult executeCommandWithKinitIfNecessary( ClusterEntity clusterEntity, String command, ISshLineListener lineListener )
+            throws InvalidResponseException {
+        return executeCommandWithKinitIfNecessary( clusterEntity, command,
+                fullCommand -> sshAuthenticationClient.executeCommand( clusterEntity, fullCommand, clusterEntity.getHost(), lineListener ) );
+    }
+
+    private SshExecResult executeCommandWithKinitIfNecessary( ClusterEntity clusterEntity, String command,
+                                                              RemoteKerberosTicketCache.IGuardedCommandCall commandCall ) throws InvalidResponseException {
         try {
-            if ( clusterEntity.isSecured() && isKerberosParamsPresent( clusterEntity ) ) {
-                sshAuthenticationClient.executeCommand( clusterEntity, "echo ".concat( clusterEntity.getKerberos().getPassword() )
-                        .concat( " | kinit " ).concat( clusterEntity.getKerberos().getUsername() ) );
-            }
+            return remoteKerberosTicketCache.isTicketRequired( clusterEntity )
+                    ? remoteKerberosTicketCache.executeWithTicket( clusterEntity, clusterEntity.getHost(), command, commandCall )
+                    : commandCall.execute( command );
         }
         catch ( AuthenticationRequestException ex) {
             throw new InvalidResponseException( ex );
         }
     }
-
-    private boolean isKerberosParamsPresent( ClusterEntity clusterEntity ) {
-        return Objects.nonNull( clusterEntity.getKerberos() ) && CheckingParamsUtil.isParamsNotNullOrEmpty(
-                clusterEntity.getKerberos().getUsername(), clusterEntity.getKerberos().getPassword() );
-    }
 }
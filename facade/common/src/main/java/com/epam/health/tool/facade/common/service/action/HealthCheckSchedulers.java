@@ -0,0 +1,27 @@
+package com.epam.health.tool.facade.common.service.action;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded scheduler for the blocking parts of health checks - blocking rest receivers, ssh and address lookups.
+ * A blocking check holds one of these threads while it waits, further checks queue up for a free one instead of
+ * starting new threads. Only requests sent through the async http client wait without a thread.
+ */
+public final class HealthCheckSchedulers {
+    private static final int BLOCKING_CHECK_THREADS = 16;
+    private static final Scheduler BLOCKING_CHECKS = Schedulers.fromExecutorService( Executors.newFixedThreadPool( BLOCKING_CHECK_THREADS, runnable -> {
+        Thread thread = new Thread( runnable, "health-check-blocking" );
+        thread.setDaemon( true );
+
+        return thread;
+    } ) );
+
+    private HealthCheckSchedulers() {}
+
+    public static Scheduler blockingChecks() {
+        return BLOCKING_CHECKS;
+    }
+}
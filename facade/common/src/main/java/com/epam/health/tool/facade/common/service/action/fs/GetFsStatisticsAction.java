@@ -4,17 +4,18 @@ import com.epam.facade.model.HealthCheckActionType;
 import com.epam.facade.model.accumulator.HealthCheckResultsAccumulator;
 import com.epam.facade.model.fs.NodeDiskUsage;
 import com.epam.facade.model.projection.NodeSnapshotEntityProjection;
-import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
-import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
 import com.epam.health.tool.facade.resolver.action.HealthCheckAction;
 import com.epam.health.tool.facade.common.service.action.CommonActionNames;
+import com.epam.health.tool.facade.common.node.NodeCollector;
+import com.epam.health.tool.facade.common.node.NodeCollectorReport;
+import com.epam.health.tool.facade.common.node.NodeFanOutExecutor;
+import com.epam.health.tool.facade.common.node.NodeFanOutResult;
 import com.epam.health.tool.facade.common.service.action.CommonRestHealthCheckAction;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
 import com.epam.health.tool.model.ClusterEntity;
-import com.epam.util.common.CheckingParamsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 /**
@@ -31,11 +33,15 @@ import java.util.Set;
 @HealthCheckAction( HealthCheckActionType.FS )
 public class GetFsStatisticsAction extends CommonRestHealthCheckAction<List<? extends NodeSnapshotEntityProjection>> {
     private static final Logger log = LoggerFactory.getLogger( GetFsStatisticsAction.class );
+    private static final long KILOBYTES_IN_MEGABYTE = 1024;
+    private static final long KILOBYTES_IN_GIGABYTE = 1024 * 1024;
 
     @Autowired
-    private SshAuthenticationClient sshAuthenticationClient;
+    private NodeCollector nodeCollector;
     @Autowired
     private IFacadeImplResolver<IRunningClusterParamReceiver> runningClusterParamImplResolver;
+    @Autowired
+    private NodeFanOutExecutor nodeFanOutExecutor;
 
     @Override
     protected List<? extends NodeSnapshotEntityProjection> performRestHealthCheck(HealthCheckResultsAccumulator healthCheckResultsAccumulator, ClusterEntity clusterEntity) throws InvalidResponseException, ImplementationNotResolvedException {
@@ -51,59 +57,36 @@ public class GetFsStatisticsAction extends CommonRestHealthCheckAction<List<? ex
 
     private List<? extends NodeSnapshotEntityProjection> getAvailableDiskDfs(String clusterName) throws InvalidResponseException, ImplementationNotResolvedException {
         ClusterEntity clusterEntity = clusterDao.findByClusterName(clusterName);
-        List<NodeDiskUsage> nodeDiskUsages = new ArrayList<>();
-
-        //Should be for all hosts
-        //HostExtracter.getAllNodeNames(clusterEntity.getHost(), 3)
-        //how get node count
-        Set<String> liveNodes = runningClusterParamImplResolver.resolveFacadeImpl(clusterEntity.getClusterTypeEnum().name())
-                .getLiveNodes( clusterName );
-        for (String node : liveNodes) {
-            String availableDiskDfs = getAvailableDiskDfsViaSsh(clusterEntity, node);
-            nodeDiskUsages.add(mapAvailableDiskDfsStringToNodeDiskUsage(node, availableDiskDfs));
-        }
-
-        return nodeDiskUsages;
-        //http://svqxbdcn6hdp26n1.pentahoqa.com:8080/api/v1/clusters/HDP26Unsecure/configurations?type=yarn-site&tag=version1
-        // /var/run/cloudera-scm-agent/process/253-yarn-NODEMANAGER/yarn-site.xml
-        //df -h . | tail -1 | awk '{print $4}'
-    }
+        IRunningClusterParamReceiver runningClusterParamReceiver = runningClusterParamImplResolver.resolveFacadeImpl(clusterEntity.getClusterTypeEnum().name());
 
-    private String getAvailableDiskDfsViaSsh(ClusterEntity clusterEntity, String host) throws InvalidResponseException, ImplementationNotResolvedException {
-        try {
-            String localDirPropery = runningClusterParamImplResolver.resolveFacadeImpl(clusterEntity.getClusterTypeEnum().name())
-                    .getYarnLocalDirectory(clusterEntity.getClusterName());
+        Set<String> liveNodes = runningClusterParamReceiver.getLiveNodes( clusterName );
+        //for cloudera taken from NODEMANAGER role config, for hortonworks from yarn-site, the same for every node
+        String localDirProperty = runningClusterParamReceiver.getYarnLocalDirectory( clusterName );
 
-            //http://svqxbdcn6cdh513n1.pentahoqa.com:7180/api/v10/clusters/CDH513Unsecure/services/yarn/roles - take nodemanager role
-            //http://svqxbdcn6cdh513n1.pentahoqa.com:7180/api/v10/clusters/CDH513Unsecure/services/yarn/roles/NODEMANAGER/process/configFiles/yarn-site.xml - download file
-
-            //for cloudera also
-            //http://svqxbdcn6cdh513n1.pentahoqa.com:7180/api/v10/clusters/CDH513Unsecure/services/yarn/roles - healthChecks,RESOURCE_MANAGER_LOG_DIRECTORY_FREE_SPACE - BAD
-            //here for each node required
-            //receive each node
-            String command = "df -h " + localDirPropery + " | tail -1";
-            String result = sshAuthenticationClient.executeCommand(clusterEntity, command, host).getOutMessage();
-            log.info( "Running command - ".concat( command ).concat( "\nWith result:\n" ) + result );
-
-            return result;
-        }
-        catch ( AuthenticationRequestException ex ) {
-            throw new InvalidResponseException( ex );
+        NodeFanOutResult<NodeDiskUsage> nodeFanOutResult = nodeFanOutExecutor.execute( clusterName, liveNodes,
+                node -> getNodeDiskUsage( clusterEntity, node, localDirProperty ) );
+        if ( nodeFanOutResult.getResults().isEmpty() && nodeFanOutResult.hasErrors() ) {
+            throw new InvalidResponseException( "File usage can't be received from any node - " + nodeFanOutResult.getErrors().values().iterator().next().getMessage() );
         }
+
+        return new ArrayList<>( nodeFanOutResult.getResults().values() );
     }
 
-    private NodeDiskUsage mapAvailableDiskDfsStringToNodeDiskUsage(String host, String availableDiskDfs) throws InvalidResponseException {
-        assertAvailableDiskDfsString(availableDiskDfs);
-        String[] split = availableDiskDfs.trim().split("\\s+");
-        NodeDiskUsage nodeDiskUsage = new NodeDiskUsage(host, split[1], split[0], split[3]);
-        System.out.println(nodeDiskUsage);
+    private NodeDiskUsage getNodeDiskUsage( ClusterEntity clusterEntity, String host, String localDirProperty ) throws InvalidResponseException {
+        //yarn local dirs may be a comma separated list, the first one is reported as before
+        String localDirectory = localDirProperty.split( "," )[0].trim();
+        NodeCollectorReport.DiskUsage diskUsage = nodeCollector.collect( clusterEntity, host )
+                .findDiskUsage( localDirectory )
+                .orElseThrow( () -> new InvalidResponseException( "File usage of " + localDirectory + " can't be found on " + host ) );
+        log.info( "Disk usage of " + localDirectory + " on " + host + " - " + diskUsage.getUsedKb() + " of " + diskUsage.getTotalKb() + " Kb" );
 
-        return nodeDiskUsage;
+        return new NodeDiskUsage( host, toGigabytesString( diskUsage.getUsedKb() ), toGigabytesString( diskUsage.getTotalKb() ),
+                diskUsage.getUsedPercent() + "%" );
     }
 
-    private void assertAvailableDiskDfsString(String availableDiskDfs) throws InvalidResponseException {
-        if (CheckingParamsUtil.isParamsNullOrEmpty(availableDiskDfs) || availableDiskDfs.trim().split("\\s+").length < 3) {
-            throw new InvalidResponseException("Not file usage can't be found on cluster");
-        }
+    //Disks under a gigabyte are shown in megabytes, otherwise they'd all be 0.0G
+    private String toGigabytesString( long kilobytes ) {
+        return kilobytes < KILOBYTES_IN_GIGABYTE ? String.format( Locale.ROOT, "%.1fM", kilobytes / (double) KILOBYTES_IN_MEGABYTE )
+                : String.format( Locale.ROOT, "%.1fG", kilobytes / (double) KILOBYTES_IN_GIGABYTE );
     }
 }
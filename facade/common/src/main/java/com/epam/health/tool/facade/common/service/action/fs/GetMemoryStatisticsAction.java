@@ -9,6 +9,7 @@ import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver
 import com.epam.health.tool.facade.resolver.action.HealthCheckAction;
 import com.epam.health.tool.facade.common.service.action.CommonActionNames;
 import com.epam.health.tool.facade.common.service.action.CommonRestHealthCheckAction;
+import com.epam.health.tool.facade.common.service.action.HealthCheckSchedulers;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
@@ -17,6 +18,7 @@ import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.json.CommonJsonHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 /**
  * Created by Vasilina_Terehova on 4/9/2018.
@@ -24,6 +26,8 @@ import org.springframework.stereotype.Component;
 @Component( CommonActionNames.MEMORY_CHECK )
 @HealthCheckAction( HealthCheckActionType.MEMORY )
 public class GetMemoryStatisticsAction extends CommonRestHealthCheckAction<MemoryUsageEntityProjection> {
+    private static final String METRICS_PATH = "/ws/v1/cluster/metrics";
+
     @Autowired
     private IFacadeImplResolver<IRunningClusterParamReceiver> iRunningClusterParamReceiver;
 
@@ -32,6 +36,22 @@ public class GetMemoryStatisticsAction extends CommonRestHealthCheckAction<Memor
         return getMemoryTotal(clusterEntity.getClusterName());
     }
 
+    //Resource manager lookup stays blocking, metrics request goes through the non-blocking client
+    @Override
+    protected Mono<MemoryUsageEntityProjection> performRestHealthCheckAsync( HealthCheckResultsAccumulator healthCheckResultsAccumulator, ClusterEntity clusterEntity ) {
+        return Mono.fromCallable( () -> getResourceManagerReceiver( clusterEntity ) ).subscribeOn( HealthCheckSchedulers.blockingChecks() )
+                .flatMap( runningClusterParamReceiver -> Mono.fromCallable( () -> runningClusterParamReceiver.getActiveResourceManagerAddress( clusterEntity.getClusterName() ) )
+                        .flatMap( rmAddress -> asyncHttpAuthenticationClient.makeAuthenticatedRequest( clusterEntity, rmAddress + METRICS_PATH, true )
+                                .doOnError( ex -> runningClusterParamReceiver.reportFailedAddress( clusterEntity.getClusterName(), rmAddress ) ) ) )
+                .flatMap( answer -> {
+                    try {
+                        return Mono.just( parseMemoryMetrics( answer ) );
+                    } catch ( InvalidResponseException ex ) {
+                        return Mono.error( ex );
+                    }
+                } );
+    }
+
     @Override
     protected void saveClusterHealthSummaryToAccumulator(HealthCheckResultsAccumulator healthCheckResultsAccumulator, MemoryUsageEntityProjection healthCheckResult) {
         HealthCheckResultsAccumulator.HealthCheckResultsModifier.get( healthCheckResultsAccumulator )
@@ -40,20 +60,33 @@ public class GetMemoryStatisticsAction extends CommonRestHealthCheckAction<Memor
 
     private MemoryUsageEntityProjection getMemoryTotal(String clusterName) throws InvalidResponseException {
         ClusterEntity clusterEntity = clusterDao.findByClusterName(clusterName);
+        IRunningClusterParamReceiver runningClusterParamReceiver = getResourceManagerReceiver( clusterEntity );
+        String rmAddress = runningClusterParamReceiver.getActiveResourceManagerAddress( clusterEntity.getClusterName() );
         try {
-            String activeResourceManagerAddress = iRunningClusterParamReceiver.resolveFacadeImpl( clusterEntity.getClusterTypeEnum() )
-                    .getActiveResourceManagerAddress(clusterEntity.getClusterName());
-            String url = activeResourceManagerAddress + "/ws/v1/cluster/metrics";
+            String answer = httpAuthenticationClient.makeAuthenticatedRequest(clusterEntity.getClusterName(), rmAddress + METRICS_PATH);
 
-            System.out.println(url);
-            String answer = httpAuthenticationClient.makeAuthenticatedRequest(clusterEntity.getClusterName(), url);
-            System.out.println(answer);
-            MemoryMetricsJson memoryMetricsJson = CommonJsonHandler.get().getTypedValueFromInnerField(answer, MemoryMetricsJson.class, "clusterMetrics");
-            System.out.println(memoryMetricsJson);
+            return parseMemoryMetrics( answer );
+        }
+        catch ( AuthenticationRequestException ex ) {
+            runningClusterParamReceiver.reportFailedAddress( clusterEntity.getClusterName(), rmAddress );
+            throw new InvalidResponseException("Elements not found.", ex);
+        }
+    }
 
-            return memoryMetricsJson;
+    private IRunningClusterParamReceiver getResourceManagerReceiver( ClusterEntity clusterEntity ) throws InvalidResponseException {
+        try {
+            return iRunningClusterParamReceiver.resolveFacadeImpl( clusterEntity.getClusterTypeEnum() );
+        }
+        catch ( ImplementationNotResolvedException ex ) {
+            throw new InvalidResponseException("Elements not found.", ex);
+        }
+    }
+
+    private MemoryMetricsJson parseMemoryMetrics( String answer ) throws InvalidResponseException {
+        try {
+            return CommonJsonHandler.get().getTypedValueFromInnerField(answer, MemoryMetricsJson.class, "clusterMetrics");
         }
-        catch ( CommonUtilException | AuthenticationRequestException | ImplementationNotResolvedException ex ) {
+        catch ( CommonUtilException ex ) {
             throw new InvalidResponseException("Elements not found.", ex);
         }
     }
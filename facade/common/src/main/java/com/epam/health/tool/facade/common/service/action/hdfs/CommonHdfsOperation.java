@@ -3,9 +3,12 @@ package com.epam.health.tool.facade.common.service.action.hdfs;
 import com.epam.facade.model.accumulator.results.impl.JobResultImpl;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.facade.model.projection.JobResultProjection;
+import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
+import com.epam.health.tool.authentication.kerberos.RemoteKerberosTicketCache;
 import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.model.ClusterEntity;
 import com.epam.util.ssh.delegating.SshExecResult;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -14,6 +17,8 @@ import java.util.stream.Collectors;
 
 public abstract class CommonHdfsOperation implements IHdfsOperation {
     protected SshAuthenticationClient sshAuthenticationClient;
+    @Autowired
+    private RemoteKerberosTicketCache remoteKerberosTicketCache;
     private final static String TEST_FILE_NAME = "test_only_k.txt";
 
     public CommonHdfsOperation(SshAuthenticationClient sshAuthenticationClient) {
@@ -28,6 +33,9 @@ public abstract class CommonHdfsOperation implements IHdfsOperation {
             SshExecResult sshExecResult = performWithException( clusterEntity );
 
             removeBashRCWarnings(sshExecResult);
+            if ( sshExecResult.isTimedOut() ) {
+                return createTimedOutJob();
+            }
             hdfsOperationResult.setSuccess(isRunSuccessfully( sshExecResult ));
             //Don't set alerts if job was successfully
             if ( !hdfsOperationResult.isSuccess() ) {
@@ -45,6 +53,14 @@ public abstract class CommonHdfsOperation implements IHdfsOperation {
     protected abstract boolean isRunSuccessfully( SshExecResult sshExecResult );
     protected abstract List<String> getAlerts( SshExecResult sshExecResult );
 
+    //Kinit on the cluster host only when needed, see RemoteKerberosTicketCache
+    protected SshExecResult executeCommand( ClusterEntity clusterEntity, String command ) throws AuthenticationRequestException {
+        return remoteKerberosTicketCache.isTicketRequired( clusterEntity )
+                ? remoteKerberosTicketCache.executeWithTicket( clusterEntity, clusterEntity.getHost(), command,
+                        fullCommand -> sshAuthenticationClient.executeCommand( clusterEntity, fullCommand ) )
+                : sshAuthenticationClient.executeCommand( clusterEntity, command );
+    }
+
     //Use Linux File.separator
     protected String createUserDirectoryPathString( ClusterEntity clusterEntity ) {
         return "/user/".concat( clusterEntity.getSsh().getUsername() ).concat( "/" )
@@ -80,4 +96,12 @@ public abstract class CommonHdfsOperation implements IHdfsOperation {
     private JobResultProjection createFailedJob( String message ) {
         return new JobResultImpl( getJobName(), false, Collections.singletonList( message ) );
     }
+
+    private JobResultProjection createTimedOutJob() {
+        JobResultImpl hdfsOperationResult = new JobResultImpl( getJobName(), false,
+                Collections.singletonList( getJobName() + " timed out and was killed" ) );
+        hdfsOperationResult.setTimedOut( true );
+
+        return hdfsOperationResult;
+    }
 }
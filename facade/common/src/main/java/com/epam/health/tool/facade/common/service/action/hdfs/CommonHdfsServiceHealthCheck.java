@@ -70,9 +70,8 @@ public class CommonHdfsServiceHealthCheck extends CommonSshHealthCheckAction {
                 .resolveFacadeImpl(clusterEntity.getClusterTypeEnum()).getServiceStatus(clusterEntity, ServiceTypeEnum.HDFS));
     }
 
-    private List<JobResultProjection> performHdfsOperations(ClusterEntity clusterEntity) throws InvalidResponseException {
-        kinitOnClusterIfNecessary(clusterEntity);
-
+    //Every hdfs command is guarded by klist and repeated after kinit if the remote ticket is gone
+    private List<JobResultProjection> performHdfsOperations(ClusterEntity clusterEntity) {
         return hdfsOperations.stream().map(hdfsOperation -> hdfsOperation.perform(clusterEntity)).collect(Collectors.toList());
     }
 
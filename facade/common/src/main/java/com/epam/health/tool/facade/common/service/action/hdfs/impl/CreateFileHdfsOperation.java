@@ -25,10 +25,10 @@ public class CreateFileHdfsOperation extends CommonHdfsOperation {
     @Override
     protected SshExecResult performWithException(ClusterEntity clusterEntity) throws InvalidResponseException {
         try {
-            SshExecResult sshExecResult = sshAuthenticationClient.executeCommand(clusterEntity,
+            SshExecResult sshExecResult = executeCommand(clusterEntity,
                     HADOOP_COMMAND.concat(" ").concat(createUserDirectoryPathString(clusterEntity)));
             if (isDirectoryNotExists(sshExecResult)) {
-                sshExecResult = sshAuthenticationClient.executeCommand(clusterEntity,
+                sshExecResult = executeCommand(clusterEntity,
                         HADOOP_COMMAND.concat(" ").concat(createTempDirectoryPathString()));
             }
 
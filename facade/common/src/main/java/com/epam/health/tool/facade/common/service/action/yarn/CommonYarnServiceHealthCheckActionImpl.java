@@ -7,8 +7,8 @@ import com.epam.facade.model.accumulator.results.impl.JobResultImpl;
 import com.epam.facade.model.cluster.receiver.InvalidBuildParamsException;
 import com.epam.facade.model.projection.JobResultProjection;
 import com.epam.facade.model.projection.ServiceStatusHolder;
-import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
 import com.epam.health.tool.context.holder.StringContextHolder;
+import com.epam.health.tool.facade.common.cluster.receiver.ClusterTopologyStore;
 import com.epam.health.tool.facade.common.service.action.CommonActionNames;
 import com.epam.health.tool.facade.common.service.action.CommonSshHealthCheckAction;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
@@ -30,9 +30,11 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component(CommonActionNames.YARN_EXAMPLES)
@@ -41,6 +43,7 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
     private final static String EXAMPLES_HADOOP_JAR_MASK = "hadoop-mapreduce-examples";
     private final static String ERROR_REGEXP = "Exception";
     private final static String IS_SUCCESS_REGEXP = ".*Job .* completed.*";
+    private final static String IS_FAILED_REGEXP = ".*Job .* failed with state .*";
     private final static String EXAMPLES_JAR_PATH_CACHE = "EXAMPLES_JAR_PATH_CACHE";
     @Autowired
     private IFacadeImplResolver<IServiceStatusReceiver> serviceStatusReceiverIFacadeImplResolver;
@@ -49,9 +52,17 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
     @Autowired
     private JarSearchingManager jarSearchingManager;
     @Autowired
+    private ClusterTopologyStore clusterTopologyStore;
+    @Autowired
     private IFacadeImplResolver<IServiceLogSearchFacade> serviceLogSearchManagerImplResolver;
     private final static Logger logger = Logger.getLogger( CommonYarnServiceHealthCheckActionImpl.class );
 
+    @PostConstruct
+    public void init() {
+        //Jar location changes only with cluster upgrades
+        applicationContext.setMinorKeyTtl( EXAMPLES_JAR_PATH_CACHE, 24, TimeUnit.HOURS );
+    }
+
     @Override
     public void performHealthCheck(String clusterName, HealthCheckResultsAccumulator healthCheckResultsAccumulator) throws InvalidResponseException {
 
@@ -67,6 +78,16 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
         }
     }
 
+    //Called by the topology refresher, the cached path is checked first and kept if the search fails
+    public void refreshExamplesJarPath( ClusterEntity clusterEntity ) {
+        String jarPath = jarSearchingManager.findJobJarOnCluster( EXAMPLES_HADOOP_JAR_MASK, clusterEntity.getClusterName(),
+                clusterEntity.getClusterTypeEnum(), getJarPathFromContext( clusterEntity.getClusterName() ) );
+        if ( CheckingParamsUtil.isParamsNotNullOrEmpty( jarPath ) ) {
+            applicationContext.addToContext( clusterEntity.getClusterName(), EXAMPLES_JAR_PATH_CACHE, StringContextHolder.class, new StringContextHolder( jarPath ) );
+            clusterTopologyStore.save( clusterEntity.getClusterName(), EXAMPLES_JAR_PATH_CACHE, jarPath );
+        }
+    }
+
     private void addLogDirectory(ClusterEntity clusterEntity, HealthCheckResultsAccumulator healthCheckResultsAccumulator, ServiceStatusHolder serviceStatus) {
         String clusterType = clusterEntity.getClusterTypeEnum().name();
         try {
@@ -85,18 +106,41 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
     }
 
     private JobResultProjection runExamplesJob(ClusterEntity clusterEntity, String jobName, String... jobParams) throws InvalidResponseException {
-        kinitOnClusterIfNecessary(clusterEntity);
         String pathToExamplesJar = jarSearchingManager.findJobJarOnCluster(EXAMPLES_HADOOP_JAR_MASK,
                 clusterEntity.getClusterName(), clusterEntity.getClusterTypeEnum(), getJarPathFromContext( clusterEntity.getClusterName() ));
         saveJarPathToContextIfNotExists( clusterEntity.getClusterName(), pathToExamplesJar );
 
+        return CheckingParamsUtil.isParamsNotNullOrEmpty( pathToExamplesJar ) ? runAndStreamYarnJob( clusterEntity, jobName,
+                "yarn jar " + pathToExamplesJar + " " + jobName + " " + createJobParamsString(jobParams) )
+                : createFailedJob( jobName, "Can't find job jar on cluster!" );
+    }
+
+    //Lines are parsed as they arrive, the job is stopped only on the final state line of the client. Exceptions logged
+    //while the client retries or fails over are not final, the rest of the output is read to the end then
+    private JobResultProjection runAndStreamYarnJob( ClusterEntity clusterEntity, String jobName, String command ) throws InvalidResponseException {
+        YarnJobBuilder yarnJobBuilder = YarnJobBuilder.get().withName(jobName);
+        SshExecResult sshExecResult = executeCommandWithKinitIfNecessary( clusterEntity, command, ( line, errorStream ) -> {
+            String trimmedLine = line.trim();
+            if ( CheckingParamsUtil.isParamsNotNullOrEmpty( trimmedLine ) ) {
+                setToYarnJob( yarnJobBuilder, trimmedLine );
+            }
+
+            return !isYarnJobFinishedLine( trimmedLine );
+        } );
+        if ( sshExecResult.isTimedOut() ) {
+            yarnJobBuilder.withTimedOut( true ).withErrors( "Job " + jobName + " timed out and was killed" );
+        }
+
         try {
-            return CheckingParamsUtil.isParamsNotNullOrEmpty( pathToExamplesJar ) ? representResultStringAsYarnJobObject(jobName, sshAuthenticationClient
-                    .executeCommand(clusterEntity, "yarn jar " + pathToExamplesJar + " " + jobName + " " + createJobParamsString(jobParams)))
-                    : createFailedJob( jobName, "Can't find job jar on cluster!" );
-        } catch (AuthenticationRequestException e) {
-            throw new InvalidResponseException( e );
+            return yarnJobBuilder.build();
         }
+        catch ( InvalidBuildParamsException ex ) {
+            return createFailedJob( jobName, ex.getMessage() );
+        }
+    }
+
+    private boolean isYarnJobFinishedLine( String line ) {
+        return line.matches( IS_SUCCESS_REGEXP ) || line.matches( IS_FAILED_REGEXP );
     }
 
     private String getJarPathFromContext( String clusterName ) {
@@ -104,9 +148,11 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
     }
 
     private void saveJarPathToContextIfNotExists( String clusterName, String jarPath ) {
-        if ( CheckingParamsUtil.isParamsNotNullOrEmpty( jarPath ) ) {
+        //Persisted only when the search found a path that isn't cached yet
+        if ( CheckingParamsUtil.isParamsNotNullOrEmpty( jarPath ) && !jarPath.equals( getJarPathFromContext( clusterName ) ) ) {
 
             applicationContext.addToContextIfAbsent( clusterName, EXAMPLES_JAR_PATH_CACHE, StringContextHolder.class, new StringContextHolder( jarPath ) );
+            clusterTopologyStore.save( clusterName, EXAMPLES_JAR_PATH_CACHE, jarPath );
         }
     }
 
@@ -114,19 +160,6 @@ public class CommonYarnServiceHealthCheckActionImpl extends CommonSshHealthCheck
         return Arrays.stream(params).collect(Collectors.joining(" "));
     }
 
-    private JobResultProjection representResultStringAsYarnJobObject(String jobName, SshExecResult result) {
-        try {
-            YarnJobBuilder yarnJobBuilder = YarnJobBuilder.get().withName(jobName);
-            Arrays.stream(result.getOutMessage().concat(result.getErrMessage().trim()).split("\n"))
-                    .filter(CheckingParamsUtil::isParamsNotNullOrEmpty).forEach(line -> this.setToYarnJob(yarnJobBuilder, line.trim()));
-
-            return yarnJobBuilder.build();
-        }
-        catch ( InvalidBuildParamsException ex ) {
-            return createFailedJob( jobName, ex.getMessage() );
-        }
-    }
-
     private void setToYarnJob(YarnJobBuilder yarnJobBuilder, String line) {
         if (line.contains(ERROR_REGEXP)) {
             yarnJobBuilder.withErrors(line);
@@ -12,6 +12,7 @@ import java.util.List;
 public class YarnJobBuilder {
     private String name;
     private boolean success;
+    private boolean timedOut;
     private List<String> errors;
 
     private YarnJobBuilder() {
@@ -34,6 +35,12 @@ public class YarnJobBuilder {
         return this;
     }
 
+    public YarnJobBuilder withTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+
+        return this;
+    }
+
     public YarnJobBuilder withErrors(String... errors) {
         this.errors.addAll(Arrays.asList(errors));
 
@@ -43,7 +50,10 @@ public class YarnJobBuilder {
     public JobResultProjection build() throws InvalidBuildParamsException {
         assertParams();
 
-        return new JobResultImpl(name, success, errors);
+        JobResultImpl jobResult = new JobResultImpl(name, success && !timedOut, errors);
+        jobResult.setTimedOut(timedOut);
+
+        return jobResult;
     }
 
     private void assertParams() throws InvalidBuildParamsException {
@@ -2,13 +2,22 @@ package com.epam.health.tool.facade.common.service.action.yarn.searcher;
 
 import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
 import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
+import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.service.action.IJarSearcher;
+import com.epam.health.tool.model.ClusterEntity;
 import com.epam.util.common.CheckingParamsUtil;
 import com.epam.util.common.StringUtils;
+import com.epam.util.ssh.delegating.SshExecResult;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 public abstract class BaseJarSearcher implements IJarSearcher {
     protected SshAuthenticationClient sshAuthenticationClient;
+    @Autowired
+    protected ClusterDao clusterDao;
 
     public BaseJarSearcher(SshAuthenticationClient sshAuthenticationClient) {
         this.sshAuthenticationClient = sshAuthenticationClient;
@@ -26,11 +35,27 @@ public abstract class BaseJarSearcher implements IJarSearcher {
 
     protected String findExamplesPath( String jarMask, String clusterName, String possiblePathToJar ) {
         try {
-            String result = sshAuthenticationClient
-                    .executeCommand( clusterName, "ls " + possiblePathToJar + " | grep " + jarMask ).getOutMessage();
-            if ( !CheckingParamsUtil.isParamsNullOrEmpty( result ) ) {
-                return result.contains( possiblePathToJar ) ? result.split( "\\s+" )[0].trim()
-                        : possiblePathToJar.concat( "/" ).concat( result.split( "\\s+" )[0].trim() );
+            return extractJarPath( sshAuthenticationClient
+                    .executeCachedCommand( clusterName, createSearchCommand( jarMask, possiblePathToJar ) ).getOutMessage(), possiblePathToJar );
+        }
+        catch ( AuthenticationRequestException ex ) {
+            log().error( ex.getMessage() );
+            return StringUtils.EMPTY;
+        }
+    }
+
+    //Checks all paths with one batched ssh call, the first path containing the jar wins
+    protected String findExamplesPath( String jarMask, String clusterName, List<String> possiblePathsToJar ) {
+        try {
+            ClusterEntity clusterEntity = clusterDao.findByClusterName( clusterName );
+            List<SshExecResult> results = sshAuthenticationClient.executeBatch( clusterEntity, possiblePathsToJar.stream()
+                    .map( possiblePathToJar -> createSearchCommand( jarMask, possiblePathToJar ) ).collect( Collectors.toList() ) );
+
+            for ( int i = 0; i < results.size(); i++ ) {
+                String pathToJar = extractJarPath( results.get( i ).getOutMessage(), possiblePathsToJar.get( i ) );
+                if ( CheckingParamsUtil.isParamsNotNullOrEmpty( pathToJar ) ) {
+                    return pathToJar;
+                }
             }
 
             return StringUtils.EMPTY;
@@ -41,6 +66,19 @@ public abstract class BaseJarSearcher implements IJarSearcher {
         }
     }
 
+    private String createSearchCommand( String jarMask, String possiblePathToJar ) {
+        return "ls " + possiblePathToJar + " | grep " + jarMask;
+    }
+
+    private String extractJarPath( String result, String possiblePathToJar ) {
+        if ( !CheckingParamsUtil.isParamsNullOrEmpty( result ) && !result.trim().isEmpty() ) {
+            return result.contains( possiblePathToJar ) ? result.trim().split( "\\s+" )[0].trim()
+                    : possiblePathToJar.concat( "/" ).concat( result.trim().split( "\\s+" )[0].trim() );
+        }
+
+        return StringUtils.EMPTY;
+    }
+
     private String findExampleJarOnPossiblePath( String jarMask, String clusterName, String possiblePath ) {
         return CheckingParamsUtil.isParamsNotNullOrEmpty( possiblePath ) ? findExamplesPath( jarMask, clusterName, possiblePath )
                 : StringUtils.EMPTY;
@@ -13,8 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 @Component
 @ClusterSpecificComponent( ClusterTypeEnum.NONE )
@@ -36,25 +35,10 @@ public class HadoopClasspathJarSearcher extends BaseJarSearcher {
     protected String searchJarPath(String jarMask, String clusterName) {
         try {
             String hadoopClasspath = sshAuthenticationClient
-                    .executeCommand( clusterName, HADOOP_CLASSPATH_COMMAND ).getOutMessage().trim();
+                    .executeCachedCommand( clusterName, HADOOP_CLASSPATH_COMMAND ).getOutMessage().trim();
 
-            // 16 threads - sshd can limit parallel ssh connections, so use max 5 threads
-            ForkJoinPool forkJoinPool = new ForkJoinPool( Integer.min( hadoopClasspath.split( ":" ).length, 5 ) );
-
-            try {
-                return forkJoinPool.submit( () -> Arrays.stream( hadoopClasspath.split(":") ).parallel()
-                        .map( possiblePathToJar -> findExamplesPath( jarMask, clusterName, possiblePathToJar ))
-                        .filter( CheckingParamsUtil::isParamsNotNullOrEmpty )
-                        .findFirst().orElse( StringUtils.EMPTY ) ).get();
-            } catch ( InterruptedException | ExecutionException e ) {
-                log.error( e.getMessage() );
-            }
-            finally {
-                //Is it necessary?
-                if ( !forkJoinPool.isShutdown() ) {
-                    forkJoinPool.shutdownNow();
-                }
-            }
+            return findExamplesPath( jarMask, clusterName, Arrays.stream( hadoopClasspath.split( ":" ) )
+                    .filter( CheckingParamsUtil::isParamsNotNullOrEmpty ).distinct().collect( Collectors.toList() ) );
         } catch ( AuthenticationRequestException e ) {
             log.error( e.getMessage() );
         }
@@ -10,6 +10,8 @@ import com.epam.health.tool.authentication.exception.AuthenticationRequestExcept
 import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.common.node.NodeFanOutExecutor;
+import com.epam.health.tool.facade.common.node.NodeFanOutResult;
 import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
 import com.epam.health.tool.facade.service.fix.action.IServiceFixAction;
 import com.epam.health.tool.facade.service.fix.action.ServiceFixAction;
@@ -21,6 +23,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 @ServiceFixAction( ServiceTypeEnum.YARN )
@@ -31,19 +36,27 @@ public class CommonYarnServiceFixAction implements IServiceFixAction {
     private ClusterDao clusterDao;
     @Autowired
     private IFacadeImplResolver<IRunningClusterParamReceiver> runningClusterParamImplResolver;
+    @Autowired
+    private NodeFanOutExecutor nodeFanOutExecutor;
 
     @Override
     public ServiceFixResult performFix( String clusterName, String rootUsername,  String rootPassword ) throws InvalidResponseException {
         ClusterEntity clusterEntity = clusterDao.findByClusterName( clusterName );
         try {
             IRunningClusterParamReceiver runningClusterParamReceiver = runningClusterParamImplResolver.resolveFacadeImpl( clusterEntity.getClusterTypeEnum() );
-            SshRunningParam.SshRunningParamBuilder sshRunningParamBuilder = SshRunningParam.SshRunningParamBuilder.get()
-                    .withSshEntity( clusterEntity.getSsh() ).withPassword( rootPassword ).withUsername( rootUsername )
-                    .withCommand( createCleanCommand( runningClusterParamReceiver, clusterName ) );
+            String cleanCommand = createCleanCommand( runningClusterParamReceiver, clusterName );
+            Set<String> liveNodes = runningClusterParamReceiver.getLiveNodes( clusterName ).stream()
+                    .filter(CheckingParamsUtil::isParamsNotNullOrEmpty).collect( Collectors.toSet() );
+
+            //Builder is mutable, so every node gets its own
+            NodeFanOutResult<SshExecResult> nodeFanOutResult = nodeFanOutExecutor.execute( clusterName, liveNodes,
+                    node -> cleanYarnCache( SshRunningParam.SshRunningParamBuilder.get()
+                            .withSshEntity( clusterEntity.getSsh() ).withPassword( rootPassword ).withUsername( rootUsername )
+                            .withCommand( cleanCommand ).withNode( node ) ) );
 
-            return runningClusterParamReceiver.getLiveNodes( clusterName ).stream()
-                    .filter(CheckingParamsUtil::isParamsNotNullOrEmpty)
-                    .map( sshRunningParamBuilder::withNode ).map( this::cleanYarnCache ).reduce( this::mergeCleaningResults )
+            return Stream.concat( nodeFanOutResult.getResults().values().stream(), nodeFanOutResult.getErrors().entrySet().stream()
+                    .map( nodeError -> createFailedCleaningResult( nodeError.getKey(), nodeError.getValue() ) ) )
+                    .reduce( this::mergeCleaningResults )
                     .map( this::mapSshResultToFixResult ).orElseThrow( () -> new InvalidResponseException( "Fix fails. No result!" ) );
         } catch ( ImplementationNotResolvedException e ) {
             throw new InvalidResponseException( e );
@@ -82,6 +95,10 @@ public class CommonYarnServiceFixAction implements IServiceFixAction {
         }
     }
 
+    private SshExecResult createFailedCleaningResult( String node, Throwable error ) {
+        return SshExecResult.SshExecResultBuilder.get().setErrMessage( "Cleaning cache on " + node + " failed with error - " + error.getMessage() ).build();
+    }
+
     private String createCleanCommand( IRunningClusterParamReceiver runningClusterParamReceiver, String clusterName ) throws InvalidResponseException {
         return YarnCleanCacheCommandBuilder.get().buildCommand( runningClusterParamReceiver.getYarnLocalDirectory( clusterName ) );
     }
@@ -4,10 +4,11 @@ import com.epam.facade.model.accumulator.HealthCheckResultsAccumulator;
 import com.epam.facade.model.accumulator.LogLocation;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
 import com.epam.facade.model.projection.ServiceStatusHolder;
-import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.dao.cluster.ClusterServiceDao;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.common.node.NodeCollector;
+import com.epam.health.tool.facade.common.node.NodeFanOutExecutor;
 import com.epam.health.tool.facade.common.service.action.other.CommonOtherServicesHealthCheckAction;
 import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
 import com.epam.health.tool.facade.service.log.IServiceLogSearchFacade;
@@ -31,7 +32,7 @@ public abstract class CommonServiceLogSearchFacade implements IServiceLogSearchF
     private final static Logger logger = Logger.getLogger( CommonServiceLogSearchFacade.class );
 
     @Autowired
-    private SshAuthenticationClient sshAuthenticationClient;
+    private NodeCollector nodeCollector;
     @Autowired
     private ClusterDao clusterDao;
     @Autowired
@@ -40,6 +41,8 @@ public abstract class CommonServiceLogSearchFacade implements IServiceLogSearchF
     private IFacadeImplResolver<IServiceLogSearchFacade> serviceLogSearchManagerImplResolver;
     @Autowired
     private ClusterServiceDao clusterServiceDao;
+    @Autowired
+    private NodeFanOutExecutor nodeFanOutExecutor;
 
     @Override
     public LogLocation searchLogs(String clusterName, ServiceTypeEnum serviceType ) {
@@ -47,7 +50,7 @@ public abstract class CommonServiceLogSearchFacade implements IServiceLogSearchF
     }
 
     protected IServiceLogsSearcher createServiceLogSearcher( String logProperty, String defaultPath ) {
-        return new CommonServiceLogSearcher( sshAuthenticationClient, clusterDao, clusterParamReceiverIFacadeImplResolver ) {
+        return new CommonServiceLogSearcher( nodeCollector, clusterDao, clusterParamReceiverIFacadeImplResolver, nodeFanOutExecutor ) {
             @Override
             protected String getLogPropertyName() {
                 return logProperty;
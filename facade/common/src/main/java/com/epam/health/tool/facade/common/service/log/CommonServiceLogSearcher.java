@@ -2,46 +2,46 @@ package com.epam.health.tool.facade.common.service.log;
 
 import com.epam.facade.model.ClusterNodes;
 import com.epam.facade.model.accumulator.LogLocation;
-import com.epam.health.tool.authentication.exception.AuthenticationRequestException;
-import com.epam.health.tool.authentication.ssh.SshAuthenticationClient;
 import com.epam.health.tool.dao.cluster.ClusterDao;
 import com.epam.health.tool.facade.cluster.receiver.IRunningClusterParamReceiver;
+import com.epam.health.tool.facade.common.node.NodeCollector;
+import com.epam.health.tool.facade.common.node.NodeFanOutExecutor;
+import com.epam.health.tool.facade.common.node.NodeFanOutResult;
 import com.epam.facade.model.exception.ImplementationNotResolvedException;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.facade.resolver.IFacadeImplResolver;
 import com.epam.health.tool.facade.service.log.IServiceLogsSearcher;
 import com.epam.health.tool.model.ClusterEntity;
-import com.epam.health.tool.transfer.Tuple2;
 import com.epam.util.common.CheckingParamsUtil;
 import com.epam.util.common.StringUtils;
-import com.epam.util.ssh.delegating.SshExecResult;
 
-import java.util.Arrays;
 import java.util.Collections;
 
 public abstract class CommonServiceLogSearcher implements IServiceLogsSearcher {
-    private SshAuthenticationClient sshAuthenticationClient;
+    private NodeCollector nodeCollector;
     private ClusterDao clusterDao;
     private IFacadeImplResolver<IRunningClusterParamReceiver> clusterParamReceiverIFacadeImplResolver;
-    private static final String PS_AUX_CLI = "ps aux | grep";
-    private static final String NAME_VALUE_SEPARATOR = "=";
+    private NodeFanOutExecutor nodeFanOutExecutor;
 
-    public CommonServiceLogSearcher(SshAuthenticationClient sshAuthenticationClient, ClusterDao clusterDao,
-                                    IFacadeImplResolver<IRunningClusterParamReceiver> clusterParamReceiverIFacadeImplResolver) {
-        this.sshAuthenticationClient = sshAuthenticationClient;
+    public CommonServiceLogSearcher(NodeCollector nodeCollector, ClusterDao clusterDao,
+                                    IFacadeImplResolver<IRunningClusterParamReceiver> clusterParamReceiverIFacadeImplResolver,
+                                    NodeFanOutExecutor nodeFanOutExecutor) {
+        this.nodeCollector = nodeCollector;
         this.clusterDao = clusterDao;
         this.clusterParamReceiverIFacadeImplResolver = clusterParamReceiverIFacadeImplResolver;
+        this.nodeFanOutExecutor = nodeFanOutExecutor;
     }
 
     @Override
     public LogLocation searchLogsLocation(String clusterName ) {
         ClusterEntity byClusterName = clusterDao.findByClusterName(clusterName);
-        return getClusterLiveNodes(byClusterName)
-                .getLiveNodes().parallelStream()
-                .map( node -> new Tuple2<>(node, runSshCommand( clusterName, createPsAuxCommand(), node ) ) )
-                .filter( objects -> CheckingParamsUtil.isParamsNotNullOrEmpty(objects.getT2()) )
+        //Bounded per cluster and per host, unlike the common pool parallel stream
+        NodeFanOutResult<String> nodeResults = nodeFanOutExecutor.execute( clusterName, getClusterLiveNodes(byClusterName).getLiveNodes(),
+                node -> findLogDirectory( byClusterName, node ) );
+        return nodeResults.getResults().entrySet().stream()
+                .filter( nodeResult -> CheckingParamsUtil.isParamsNotNullOrEmpty(nodeResult.getValue()) )
                 .findFirst()
-                .map(objects -> new LogLocation(objects.getT1(), objects.getT2()))
+                .map(nodeResult -> new LogLocation(nodeResult.getKey(), nodeResult.getValue()))
                 .orElse(new LogLocation("not found", getDefaultPath()));
 
     }
@@ -58,24 +58,12 @@ public abstract class CommonServiceLogSearcher implements IServiceLogsSearcher {
         }
     }
 
-    private String createPsAuxCommand() {
-        return PS_AUX_CLI.concat( " " ).concat( getLogPropertyName() );
-    }
-
-    private String runSshCommand( String clusterName, String command, String node ) {
+    //One collector report per node is shared by all service searchers
+    private String findLogDirectory( ClusterEntity clusterEntity, String node ) {
         try {
-            return parseCommandResult( sshAuthenticationClient.executeCommand( clusterName, command, node) );
-        } catch (AuthenticationRequestException e) {
+            return nodeCollector.collect( clusterEntity, node ).findLogDirectory( getLogPropertyName() ).orElse( StringUtils.EMPTY );
+        } catch (InvalidResponseException e) {
             return StringUtils.EMPTY;
         }
     }
-
-    private String parseCommandResult( SshExecResult sshExecResult ) {
-        return Arrays.stream( sshExecResult.getOutMessage().split( "\\s+" ) ).filter( this::isLogPropertyExpression )
-                .findFirst().orElse( " ".concat( NAME_VALUE_SEPARATOR ).concat( " " ) ).split( NAME_VALUE_SEPARATOR )[1].trim();
-    }
-
-    private boolean isLogPropertyExpression( String property ) {
-        return !CheckingParamsUtil.isParamsNullOrEmpty( property ) && property.contains( getLogPropertyName().concat( NAME_VALUE_SEPARATOR ) );
-    }
 }
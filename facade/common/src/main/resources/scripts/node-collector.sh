@@ -0,0 +1,36 @@
+#!/bin/sh
+# Collects node state in one pass and prints it as one JSON document:
+# load average, disk usage of every directory given as argument and -D*.log.dir values of running processes.
+
+json_escape() {
+  printf '%s' "$1" | sed -e 's/\\/\\\\/g' -e 's/"/\\"/g'
+}
+
+printf '{"loadAverage":['
+if [ -r /proc/loadavg ]; then
+  awk '{ printf "%s,%s,%s", $1, $2, $3 }' /proc/loadavg
+fi
+
+printf '],"disks":['
+separator=""
+for directory in "$@"; do
+  #Some filesystems report "-" instead of numbers, written as 0 to keep the json valid
+  usage=$(df -Pk "$directory" 2>/dev/null | awk 'NR == 2 { sub( "%", "", $5 ); for ( i = 2; i <= 5; i++ ) if ( $i !~ /^[0-9]+$/ ) $i = 0; print $2, $3, $4, $5, $6 }')
+  [ -n "$usage" ] || continue
+  read -r total used available percent mount <<USAGE
+$usage
+USAGE
+  printf '%s{"directory":"%s","mount":"%s","totalKb":%s,"usedKb":%s,"availableKb":%s,"usedPercent":%s}' \
+    "$separator" "$(json_escape "$directory")" "$(json_escape "$mount")" "$total" "$used" "$available" "$percent"
+  separator=","
+done
+
+printf '],"logDirectories":['
+ps -eo args= 2>/dev/null | tr ' ' '\n' | grep -E '^-D[A-Za-z0-9_.-]+\.log\.dir=.' | sed 's/^-D//' | sort -u | {
+  separator=""
+  while IFS='=' read -r property value; do
+    printf '%s{"property":"%s","value":"%s"}' "$separator" "$(json_escape "$property")" "$(json_escape "$value")"
+    separator=","
+  done
+}
+printf ']}\n'
@@ -5,48 +5,68 @@ import com.epam.facade.model.context.ContextKey;
 import com.epam.health.tool.context.holder.DefaultContextHolder;
 import com.epam.health.tool.facade.context.IApplicationContext;
 import com.epam.health.tool.facade.context.ISingleContextHolder;
-import com.epam.util.common.CheckingParamsUtil;
+import org.apache.log4j.Logger;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-//Should use sync methods
+/**
+ * Cluster context shared by parallel health checks. Holders expire after the TTL of their minor key, the least recently
+ * used holders are evicted above MAX_ENTRIES. Keys are also indexed by minor key, so removeAllByMinorKey touches only
+ * the holders of that key.
+ */
 @Component("singleton")
 public class CommonApplicationContext implements IApplicationContext {
-    private Map<ContextKey, ISingleContextHolder> singleContextHolderMap;
+    private static final int MAX_ENTRIES = 1024;
 
-    public CommonApplicationContext() {
-        this.singleContextHolderMap = new HashMap<>();
-    }
+    private final static Logger logger = Logger.getLogger( CommonApplicationContext.class );
+    private final Map<ContextKey, ContextEntry> singleContextHolderMap = new ConcurrentHashMap<>();
+    private final Map<String, Set<ContextKey>> minorKeyIndex = new ConcurrentHashMap<>();
+    private final Map<String, Long> minorKeyTtls = new ConcurrentHashMap<>();
+    private final AtomicLong accessCounter = new AtomicLong();
 
     @Override
     public void putHolder( ContextKey holderKey, ISingleContextHolder holder ) {
-        singleContextHolderMap.put( holderKey, holder );
+        putEntry( holderKey, new ContextEntry( holder, getTtlMillis( holderKey.getMinorKey() ) ) );
     }
 
     @Override
-    public void putHolderIfAbsent(ContextKey holderKey, ISingleContextHolder holder) {
-        singleContextHolderMap.putIfAbsent( holderKey, holder );
+    public void putHolderIfAbsent( ContextKey holderKey, ISingleContextHolder holder ) {
+        if ( getEntry( holderKey ) == null ) {
+            putEntryIfAbsent( holderKey, new ContextEntry( holder, getTtlMillis( holderKey.getMinorKey() ) ) );
+        }
     }
 
     @Override
     public ISingleContextHolder removeHolder( ContextKey holderKey ) {
-        return singleContextHolderMap.remove( holderKey );
+        ContextEntry contextEntry = removeEntry( holderKey, null );
+
+        return contextEntry != null ? contextEntry.getLoadedHolder() : null;
     }
 
     @Override
     public <T> ISingleContextHolder<T> getHolder( ContextKey holderKey ) {
-        return singleContextHolderMap.getOrDefault( holderKey, new DefaultContextHolder());
+        ContextEntry contextEntry = getEntry( holderKey );
+        ISingleContextHolder holder = contextEntry != null ? contextEntry.getLoadedHolder() : null;
+        if ( holder == null ) {
+            holder = new DefaultContextHolder();
+        }
+
+        return holder;
     }
 
     public <T> T getFromContext( String clusterName, String minorKey, Class<?> holderClass, T defaultValue ) {
         try {
             return this.<T>getHolder( buildContextKey( clusterName, minorKey, holderClass ) ).orElse( defaultValue );
         } catch (InvalidBuildParamsException e) {
-//            logger.error( e.getMessage() );
+            logger.error( e.getMessage() );
             return defaultValue;
         }
     }
@@ -55,7 +75,7 @@ public class CommonApplicationContext implements IApplicationContext {
         try {
             this.putHolder( buildContextKey( clusterName, minorKey, holderClass ), value );
         } catch (InvalidBuildParamsException e) {
-//            logger.error( e.getMessage() );
+            logger.error( e.getMessage() );
         }
     }
 
@@ -64,23 +84,192 @@ public class CommonApplicationContext implements IApplicationContext {
         try {
             this.putHolderIfAbsent( buildContextKey( clusterName, minorKey, holderClass ), value );
         } catch (InvalidBuildParamsException e) {
-//            logger.error( e.getMessage() );
+            logger.error( e.getMessage() );
         }
     }
 
+    //The loader runs outside of map locks, so it may use the context itself
+    @Override
+    public <T, E extends Exception> T computeIfAbsent( String clusterName, String minorKey, Class<?> holderClass,
+                                                       IContextHolderLoader<T, E> loader, T defaultValue ) throws E {
+        ContextKey holderKey;
+        try {
+            holderKey = buildContextKey( clusterName, minorKey, holderClass );
+        } catch (InvalidBuildParamsException e) {
+            logger.error( e.getMessage() );
+            return defaultValue;
+        }
+
+        ContextEntry contextEntry = getEntry( holderKey );
+        if ( contextEntry == null ) {
+            ContextEntry loadingEntry = new ContextEntry();
+            contextEntry = putEntryIfAbsent( holderKey, loadingEntry );
+            if ( contextEntry == loadingEntry ) {
+                ISingleContextHolder<T> holder = loadHolder( holderKey, loadingEntry, loader );
+
+                return holder != null ? holder.orElse( defaultValue ) : defaultValue;
+            }
+        }
+
+        ISingleContextHolder<T> holder = contextEntry.awaitHolder();
+        //A failed load is not shared, waiting callers load on their own
+        if ( holder == null && contextEntry.failed ) {
+            holder = loader.load();
+        }
+
+        return holder != null ? holder.orElse( defaultValue ) : defaultValue;
+    }
+
     public void removeAllByMinorKey(String minorKey ) {
-        List<ContextKey> keys = singleContextHolderMap.entrySet().stream().map(Map.Entry::getKey).filter(key -> isKeysEquals( key.getMinorKey(), minorKey ) )
-                .collect(Collectors.toList());
+        Set<ContextKey> keys = minorKeyIndex.get( minorKey );
+        if ( keys != null ) {
+            new ArrayList<>( keys ).forEach( key -> removeEntry( key, null ) );
+        }
+    }
+
+    @Override
+    public void setMinorKeyTtl( String minorKey, long ttl, TimeUnit timeUnit ) {
+        minorKeyTtls.put( minorKey, timeUnit.toMillis( ttl ) );
+    }
+
+    private <T, E extends Exception> ISingleContextHolder<T> loadHolder( ContextKey holderKey, ContextEntry loadingEntry,
+                                                                         IContextHolderLoader<T, E> loader ) throws E {
+        try {
+            ISingleContextHolder<T> holder = loader.load();
+            if ( holder == null ) {
+                removeEntry( holderKey, loadingEntry );
+            }
+            loadingEntry.complete( holder, getTtlMillis( holderKey.getMinorKey() ) );
+
+            return holder;
+        } catch ( Exception | Error ex ) {
+            removeEntry( holderKey, loadingEntry );
+            loadingEntry.failed = true;
+            loadingEntry.complete( null, 0 );
+
+            throw ex;
+        }
+    }
+
+    //Null if absent or expired, expired holders are dropped on the way
+    private ContextEntry getEntry( ContextKey holderKey ) {
+        ContextEntry contextEntry = singleContextHolderMap.get( holderKey );
+        if ( contextEntry != null && contextEntry.isExpired() ) {
+            removeEntry( holderKey, contextEntry );
+
+            return null;
+        }
+        if ( contextEntry != null ) {
+            contextEntry.lastAccess = accessCounter.incrementAndGet();
+        }
 
-        keys.forEach( singleContextHolderMap::remove );
+        return contextEntry;
     }
 
-    private boolean isKeysEquals( String firstKey, String secondKey ) {
-        return CheckingParamsUtil.isParamsNotNullOrEmpty( firstKey, secondKey ) && firstKey.equals( secondKey );
+    private void putEntry( ContextKey holderKey, ContextEntry contextEntry ) {
+        singleContextHolderMap.compute( holderKey, ( key, current ) -> {
+            indexKey( key );
+            return contextEntry;
+        } );
+        evictIfFull();
+    }
+
+    //Returns the live entry kept under the key, the given one if there was none
+    private ContextEntry putEntryIfAbsent( ContextKey holderKey, ContextEntry contextEntry ) {
+        ContextEntry result = singleContextHolderMap.compute( holderKey, ( key, current ) -> {
+            if ( current != null && !current.isExpired() ) {
+                return current;
+            }
+            indexKey( key );
+            return contextEntry;
+        } );
+        evictIfFull();
+
+        return result;
+    }
+
+    //Removes the key only while it holds the expected entry, any entry for null
+    private ContextEntry removeEntry( ContextKey holderKey, ContextEntry expected ) {
+        ContextEntry[] removed = new ContextEntry[ 1 ];
+        singleContextHolderMap.computeIfPresent( holderKey, ( key, current ) -> {
+            if ( expected != null && current != expected ) {
+                return current;
+            }
+            unindexKey( key );
+            removed[ 0 ] = current;
+            return null;
+        } );
+
+        return removed[ 0 ];
+    }
+
+    //Scans the map only when it overflows, expired holders go first, then the least recently used ones
+    private void evictIfFull() {
+        if ( singleContextHolderMap.size() <= MAX_ENTRIES ) {
+            return;
+        }
+
+        singleContextHolderMap.forEach( ( key, contextEntry ) -> {
+            if ( contextEntry.isExpired() ) {
+                removeEntry( key, contextEntry );
+            }
+        } );
+        while ( singleContextHolderMap.size() > MAX_ENTRIES ) {
+            Map.Entry<ContextKey, ContextEntry> eldest = Collections.min( singleContextHolderMap.entrySet(),
+                    ( first, second ) -> Long.compare( first.getValue().lastAccess, second.getValue().lastAccess ) );
+            removeEntry( eldest.getKey(), eldest.getValue() );
+        }
+    }
+
+    private void indexKey( ContextKey holderKey ) {
+        minorKeyIndex.computeIfAbsent( holderKey.getMinorKey(), minorKey -> ConcurrentHashMap.newKeySet() ).add( holderKey );
+    }
+
+    private void unindexKey( ContextKey holderKey ) {
+        Set<ContextKey> keys = minorKeyIndex.get( holderKey.getMinorKey() );
+        if ( keys != null ) {
+            keys.remove( holderKey );
+        }
+    }
+
+    private long getTtlMillis( String minorKey ) {
+        return minorKeyTtls.getOrDefault( minorKey, 0L );
     }
 
     private ContextKey buildContextKey(String clusterName, String minorKey, Class<?> holderClass ) throws InvalidBuildParamsException {
         return ContextKey.ContextKeyBuilder.get().withMajorKey( clusterName )
                 .withMinorKey( minorKey ).withHolderClass( holderClass ).build();
     }
+
+    private class ContextEntry {
+        private final CompletableFuture<ISingleContextHolder> holder = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+        private volatile long lastAccess = accessCounter.incrementAndGet();
+        private volatile boolean failed;
+
+        private ContextEntry() {
+        }
+
+        private ContextEntry( ISingleContextHolder holder, long ttlMillis ) {
+            complete( holder, ttlMillis );
+        }
+
+        private void complete( ISingleContextHolder loadedHolder, long ttlMillis ) {
+            this.expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+            this.holder.complete( loadedHolder );
+        }
+
+        //Null while the holder is being loaded
+        private <T> ISingleContextHolder<T> getLoadedHolder() {
+            return holder.getNow( null );
+        }
+
+        private <T> ISingleContextHolder<T> awaitHolder() {
+            return holder.join();
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
 }
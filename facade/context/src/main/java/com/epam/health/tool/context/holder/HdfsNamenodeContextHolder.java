@@ -0,0 +1,15 @@
+package com.epam.health.tool.context.holder;
+
+import com.epam.facade.model.fs.HdfsNamenodeJson;
+import com.epam.health.tool.context.BaseContextHolder;
+
+public class HdfsNamenodeContextHolder extends BaseContextHolder<HdfsNamenodeJson> {
+    public HdfsNamenodeContextHolder(HdfsNamenodeJson saved) {
+        super(saved);
+    }
+
+    @Override
+    public Class<?> getObjectClass() {
+        return HdfsNamenodeJson.class;
+    }
+}
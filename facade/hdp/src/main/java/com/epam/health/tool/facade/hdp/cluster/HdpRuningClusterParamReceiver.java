@@ -17,6 +17,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,15 +38,39 @@ public class HdpRuningClusterParamReceiver extends CommonRuningClusterParamRecei
 
     @Override
     public String getPropertySiteXml(ClusterEntity clusterEntity, String siteName, String propertyName) throws InvalidResponseException {
-        //try {
+        try {
+            return CommonJsonHandler.get().getTypedValueFromInnerField( getSiteConfiguration( clusterEntity, siteName ), String.class,
+                    "items", "properties", propertyName);
+        } catch ( CommonUtilException e ) {
+            throw new InvalidResponseException(e);
+        }
+    }
+
+    //All properties of the site come with one configurations answer
+    @Override
+    protected Map<String, String> getPropertiesSiteXml( ClusterEntity clusterEntity, String siteName, Set<String> propertyNames ) throws InvalidResponseException {
+        try {
+            Map<String, String> siteProperties = CommonJsonHandler.get().getTypedValueFromInnerField( getSiteConfiguration( clusterEntity, siteName ),
+                    Map.class, "items", "properties" );
+            Map<String, String> properties = new HashMap<>();
+            if ( siteProperties != null ) {
+                propertyNames.stream().filter( siteProperties::containsKey )
+                        .forEach( propertyName -> properties.put( propertyName, siteProperties.get( propertyName ) ) );
+            }
+
+            return properties;
+        } catch ( CommonUtilException e ) {
+            throw new InvalidResponseException(e);
+        }
+    }
+
+    private String getSiteConfiguration( ClusterEntity clusterEntity, String siteName ) throws InvalidResponseException {
         String clusterName = clusterEntity.getClusterName();
         String siteType = siteName.replace(".xml", "");
         String urlConfiguration = "http://" + clusterEntity.getHost() + ":8080/api/v1/clusters/" + clusterName + "/configurations?type=" + siteType + "&tag=version1";
-        System.out.println(urlConfiguration);
         try {
-            return CommonJsonHandler.get().getTypedValueFromInnerField(
-                    httpAuthenticationClient.makeAuthenticatedRequest(clusterName, urlConfiguration, false), String.class, "items", "properties", propertyName);
-        } catch ( CommonUtilException | AuthenticationRequestException e ) {
+            return httpAuthenticationClient.makeAuthenticatedRequest(clusterName, urlConfiguration, false);
+        } catch ( AuthenticationRequestException e ) {
             throw new InvalidResponseException(e);
         }
     }
@@ -0,0 +1,21 @@
+package com.epam.health.tool.facade.hdp.cluster;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Element of the Ambari services list, services unknown to ServiceTypeEnum fail to parse and are skipped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HdpServiceInfoItem {
+    @JsonProperty( "ServiceInfo" )
+    private HdpServiceStatusDTO serviceInfo;
+
+    public HdpServiceStatusDTO getServiceInfo() {
+        return serviceInfo;
+    }
+
+    public void setServiceInfo(HdpServiceStatusDTO serviceInfo) {
+        this.serviceInfo = serviceInfo;
+    }
+}
@@ -7,17 +7,24 @@ import com.epam.health.tool.facade.resolver.ClusterSpecificComponent;
 import com.epam.health.tool.facade.common.service.status.CommonServiceStatusReceiver;
 import com.epam.facade.model.exception.InvalidResponseException;
 import com.epam.health.tool.facade.hdp.cluster.ServiceStateEnumMapper;
+import com.epam.health.tool.facade.hdp.cluster.HdpServiceInfoItem;
 import com.epam.health.tool.facade.hdp.cluster.HdpServiceStatusDTO;
 import com.epam.health.tool.model.ClusterEntity;
 import com.epam.health.tool.model.ClusterTypeEnum;
 import com.epam.health.tool.model.ServiceTypeEnum;
 import com.epam.util.common.CommonUtilException;
 import com.epam.util.common.json.CommonJsonHandler;
+import org.apache.log4j.Logger;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -26,15 +33,56 @@ import java.util.stream.Collectors;
 @Component
 @ClusterSpecificComponent(ClusterTypeEnum.HDP)
 public class HdpServiceStatusReceiver extends CommonServiceStatusReceiver {
+    private final static Logger logger = Logger.getLogger( HdpServiceStatusReceiver.class );
+    private static final String SERVICES_FIELDS = "?fields=ServiceInfo/state,ServiceInfo/service_name";
+    //Fallback only, shared by all clusters
+    private static final int PER_SERVICE_PARALLELISM = 8;
+    private static final ExecutorService perServiceExecutor = Executors.newFixedThreadPool( PER_SERVICE_PARALLELISM, runnable -> {
+        Thread thread = new Thread( runnable, "hdp-service-status" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
     @Override
     public List<ServiceStatusHolder> getServiceStatusList(ClusterEntity clusterEntity) throws InvalidResponseException {
         try {
-            return Arrays.stream(ServiceTypeEnum.values())
-                    .map(serviceTypeEnum -> getServiceStatus(clusterEntity, serviceTypeEnum))
+            List<ServiceStatusHolder> serviceStatusList = getAllServiceStatuses( clusterEntity );
+            if ( !serviceStatusList.isEmpty() ) {
+                return serviceStatusList;
+            }
+        } catch (CommonUtilException | RuntimeException ex) {
+            logger.warn( "Can't get all service statuses of " + clusterEntity.getClusterName() + " with one request - " + ex.getMessage() );
+        }
+
+        return getServiceStatusListPerService( clusterEntity );
+    }
+
+    //One request for every service of the cluster
+    private List<ServiceStatusHolder> getAllServiceStatuses(ClusterEntity clusterEntity) throws CommonUtilException {
+        String url = getServicesUrl( clusterEntity ) + SERVICES_FIELDS;
+        List<ServiceStatusHolder> serviceStatusList = new ArrayList<>();
+        for ( HdpServiceInfoItem hdpServiceInfoItem : CommonJsonHandler.get().getListTypedValueFromInnerField(
+                makeHttpRequest(clusterEntity.getClusterName(), url, false), HdpServiceInfoItem.class, "items") ) {
+            if ( hdpServiceInfoItem.getServiceInfo() != null ) {
+                serviceStatusList.add( transferServiceStatus( hdpServiceInfoItem.getServiceInfo() ) );
+            }
+        }
+
+        return serviceStatusList;
+    }
+
+    private List<ServiceStatusHolder> getServiceStatusListPerService(ClusterEntity clusterEntity) throws InvalidResponseException {
+        List<CompletableFuture<ServiceStatusHolder>> serviceStatuses = Arrays.stream(ServiceTypeEnum.values())
+                .filter(serviceTypeEnum -> serviceTypeEnum != ServiceTypeEnum.UNDEFINED)
+                .map(serviceTypeEnum -> CompletableFuture.supplyAsync(() -> getServiceStatus(clusterEntity, serviceTypeEnum), perServiceExecutor))
+                .collect(Collectors.toList());
+        try {
+            return serviceStatuses.stream().map(CompletableFuture::join)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
-        } catch (RuntimeException ex) {
-            throw new InvalidResponseException(ex);
+        } catch (CompletionException ex) {
+            throw new InvalidResponseException(ex.getCause());
         }
     }
 
@@ -48,7 +96,7 @@ public class HdpServiceStatusReceiver extends CommonServiceStatusReceiver {
 
     @Override
     public ServiceStatusHolder getServiceStatus(ClusterEntity clusterEntity, ServiceTypeEnum serviceTypeEnum) throws RuntimeException {
-        String url = "http://" + clusterEntity.getHost() + ":8080/api/v1/clusters/" + clusterEntity.getClusterName() + "/services/" + serviceTypeEnum.toString();
+        String url = getServicesUrl( clusterEntity ) + "/" + serviceTypeEnum.toString();
         try {
             return readFromJson(makeHttpRequest(clusterEntity.getClusterName(), url, false));
         } catch (CommonUtilException e) {
@@ -62,6 +110,15 @@ public class HdpServiceStatusReceiver extends CommonServiceStatusReceiver {
             //impala doesn't exist for hdp
             return null;
         }
+
+        return transferServiceStatus(hdpServiceStatusDTO);
+    }
+
+    private String getServicesUrl(ClusterEntity clusterEntity) {
+        return "http://" + clusterEntity.getHost() + ":8080/api/v1/clusters/" + clusterEntity.getClusterName() + "/services";
+    }
+
+    private ServiceStatusHolder transferServiceStatus(HdpServiceStatusDTO hdpServiceStatusDTO) {
         hdpServiceStatusDTO.setHealthStatus(ServiceStateEnumMapper.get().mapStringStateToEnum(hdpServiceStatusDTO.getHealthStatus()).toString());
         return svTransfererManager.<HdpServiceStatusDTO, ServiceStatus>getTransferer(HdpServiceStatusDTO.class, ServiceStatus.class)
                 .transfer(hdpServiceStatusDTO, ServiceStatus.class);
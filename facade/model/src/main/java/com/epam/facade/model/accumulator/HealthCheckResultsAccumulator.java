@@ -6,15 +6,15 @@ import com.epam.facade.model.projection.*;
 import com.epam.health.tool.model.ServiceTypeEnum;
 import com.epam.util.common.CheckingParamsUtil;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class HealthCheckResultsAccumulator {
     //Separate services
-    //Other services
-    private List<ServiceStatusHolder> serviceStatusList = new ArrayList<>();
+    //Other services, checks of a cluster run concurrently and add their statuses from different threads
+    private List<ServiceStatusHolder> serviceStatusList = new CopyOnWriteArrayList<>();
     //Fs check result
     private FsHealthCheckResult fsHealthCheckResult;
     //Snapshot info
@@ -151,20 +151,25 @@ public class HealthCheckResultsAccumulator {
             return healthCheckResultsAccumulator;
         }
 
+        //Memory, hdfs and node results are set by concurrent checks into the same fs result
         private void verifyAndSetFsResult(Runnable fsResultAction) {
-            if (this.healthCheckResultsAccumulator.fsHealthCheckResult == null) {
-                this.healthCheckResultsAccumulator.fsHealthCheckResult = new FsHealthCheckResult();
-            }
+            synchronized (this.healthCheckResultsAccumulator) {
+                if (this.healthCheckResultsAccumulator.fsHealthCheckResult == null) {
+                    this.healthCheckResultsAccumulator.fsHealthCheckResult = new FsHealthCheckResult();
+                }
 
-            fsResultAction.run();
+                fsResultAction.run();
+            }
         }
 
         private void verifyAndSetClusterInfo(Runnable fsResultAction) {
-            if (this.healthCheckResultsAccumulator.clusterSnapshotAccumulator == null) {
-                this.healthCheckResultsAccumulator.clusterSnapshotAccumulator = new ClusterSnapshotAccumulator();
-            }
+            synchronized (this.healthCheckResultsAccumulator) {
+                if (this.healthCheckResultsAccumulator.clusterSnapshotAccumulator == null) {
+                    this.healthCheckResultsAccumulator.clusterSnapshotAccumulator = new ClusterSnapshotAccumulator();
+                }
 
-            fsResultAction.run();
+                fsResultAction.run();
+            }
         }
     }
 }
@@ -12,6 +12,7 @@ import java.util.List;
 public class JobResultImpl implements JobResultProjection {
     private String name;
     private boolean success;
+    private boolean timedOut;
     private List<String> alerts;
 
     public JobResultImpl() {
@@ -38,6 +39,11 @@ public class JobResultImpl implements JobResultProjection {
         return success;
     }
 
+    @Override
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
     @Override
     public List<String> getAlerts() {
         return alerts;
@@ -51,6 +57,10 @@ public class JobResultImpl implements JobResultProjection {
         this.success = success;
     }
 
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+
     public void setAlerts(List<String> alerts) {
         this.alerts = alerts;
     }
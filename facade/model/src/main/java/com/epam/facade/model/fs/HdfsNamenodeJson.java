@@ -1,14 +1,11 @@
 package com.epam.facade.model.fs;
 
 import com.epam.facade.model.projection.HdfsUsageEntityProjection;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -29,7 +26,7 @@ public class HdfsNamenodeJson implements HdfsUsageEntityProjection {
     //percent used by hdfs
     private float percentUsed;
 
-    Map<String, String> liveNodes;
+    private LiveDataNodes liveDataNodes = LiveDataNodes.empty();
     //kb, mb, gb
     public static long BYTES_TO_GB_DIVIDER = 1024*1024*1024;
 
@@ -108,21 +105,18 @@ public class HdfsNamenodeJson implements HdfsUsageEntityProjection {
     }
 
     public Set<String> getLiveNodes() {
-        return liveNodes.keySet();
+        return liveDataNodes.getNodeNames();
+    }
+
+    //Per datanode dfs usage from the same JMX answer
+    @JsonIgnore
+    public LiveDataNodes getLiveDataNodes() {
+        return liveDataNodes;
     }
 
     @JsonProperty(value = "LiveNodes")
-    public void setLiveNodes(String liveNodes) {
-        ObjectMapper mapperObj = new ObjectMapper();
-        try {
-            TypeReference<HashMap<String,Object>> typeRef
-                    = new TypeReference<HashMap<String,Object>>() {};
-            this.liveNodes = mapperObj.readValue(liveNodes,
-                    typeRef);
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.out.println("can't read live nodes from datanode infor");
-        }
+    public void setLiveNodes(String liveNodes) throws IOException {
+        this.liveDataNodes = LiveDataNodes.parse( liveNodes );
     }
 
     @Override
@@ -131,6 +125,6 @@ public class HdfsNamenodeJson implements HdfsUsageEntityProjection {
                 getUsedGb() + " out of " + getTotalGb() + "\n " +
                 " cache capacity gb: " + getCacheCapacityGb() + " non dfs used gb out of " + getNonDfsUsedGb() + "\n " +
                 " . Percent: " + percentUsed + " CacheCapacity: " + cacheCapacity + " Free: " + free + " nonDfsUsedSpace: " + nonDfsUsedSpace +
-        " nodes " + liveNodes.keySet();
+        " nodes " + liveDataNodes.getNodeNames();
     }
 }
@@ -0,0 +1,164 @@
+package com.epam.facade.model.fs;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Live datanodes from the NameNodeInfo LiveNodes attribute, kept as parallel primitive arrays.
+ * Only node names and capacity related fields are read, the rest of every node description is skipped.
+ */
+public class LiveDataNodes {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private String[] nodeNames = new String[ 16 ];
+    private long[] capacity = new long[ 16 ];
+    private long[] used = new long[ 16 ];
+    private long[] remaining = new long[ 16 ];
+    private long[] numBlocks = new long[ 16 ];
+    //Seconds since the last heartbeat
+    private long[] lastContact = new long[ 16 ];
+    private int size;
+    private Set<String> nodeNameSet;
+
+    private LiveDataNodes() {
+    }
+
+    public static LiveDataNodes empty() {
+        return new LiveDataNodes().trim();
+    }
+
+    //LiveNodes is a JSON object serialized to a string, node name to node description
+    public static LiveDataNodes parse( String liveNodesJson ) throws IOException {
+        LiveDataNodes liveDataNodes = new LiveDataNodes();
+        if ( liveNodesJson == null || liveNodesJson.isEmpty() ) {
+            return liveDataNodes.trim();
+        }
+
+        try ( JsonParser jsonParser = JSON_FACTORY.createParser( liveNodesJson ) ) {
+            if ( jsonParser.nextToken() != JsonToken.START_OBJECT ) {
+                throw new IOException( "LiveNodes is not a JSON object" );
+            }
+            while ( jsonParser.nextToken() == JsonToken.FIELD_NAME ) {
+                int index = liveDataNodes.addNode( jsonParser.getCurrentName() );
+                if ( jsonParser.nextToken() == JsonToken.START_OBJECT ) {
+                    liveDataNodes.readNode( jsonParser, index );
+                } else {
+                    jsonParser.skipChildren();
+                }
+            }
+        }
+
+        return liveDataNodes.trim();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Set<String> getNodeNames() {
+        return nodeNameSet;
+    }
+
+    public int indexOf( String nodeName ) {
+        for ( int i = 0; i < size; i++ ) {
+            if ( nodeNames[ i ].equals( nodeName ) ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    public String getNodeName( int index ) {
+        return nodeNames[ index ];
+    }
+
+    public long getCapacity( int index ) {
+        return capacity[ index ];
+    }
+
+    public long getUsed( int index ) {
+        return used[ index ];
+    }
+
+    public long getRemaining( int index ) {
+        return remaining[ index ];
+    }
+
+    public long getNumBlocks( int index ) {
+        return numBlocks[ index ];
+    }
+
+    public long getLastContact( int index ) {
+        return lastContact[ index ];
+    }
+
+    public float getUsedPercent( int index ) {
+        return capacity[ index ] > 0 ? used[ index ] * 100f / capacity[ index ] : 0f;
+    }
+
+    private void readNode( JsonParser jsonParser, int index ) throws IOException {
+        while ( jsonParser.nextToken() == JsonToken.FIELD_NAME ) {
+            String fieldName = jsonParser.getCurrentName();
+            JsonToken valueToken = jsonParser.nextToken();
+            if ( !valueToken.isNumeric() ) {
+                jsonParser.skipChildren();
+                continue;
+            }
+
+            switch ( fieldName ) {
+                case "capacity":
+                    capacity[ index ] = jsonParser.getLongValue();
+                    break;
+                case "used":
+                    used[ index ] = jsonParser.getLongValue();
+                    break;
+                case "remaining":
+                    remaining[ index ] = jsonParser.getLongValue();
+                    break;
+                case "numBlocks":
+                    numBlocks[ index ] = jsonParser.getLongValue();
+                    break;
+                case "lastContact":
+                    lastContact[ index ] = jsonParser.getLongValue();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private int addNode( String nodeName ) {
+        if ( size == nodeNames.length ) {
+            int newLength = size * 2;
+            nodeNames = Arrays.copyOf( nodeNames, newLength );
+            capacity = Arrays.copyOf( capacity, newLength );
+            used = Arrays.copyOf( used, newLength );
+            remaining = Arrays.copyOf( remaining, newLength );
+            numBlocks = Arrays.copyOf( numBlocks, newLength );
+            lastContact = Arrays.copyOf( lastContact, newLength );
+        }
+        nodeNames[ size ] = nodeName;
+
+        return size++;
+    }
+
+    private LiveDataNodes trim() {
+        nodeNames = Arrays.copyOf( nodeNames, size );
+        capacity = Arrays.copyOf( capacity, size );
+        used = Arrays.copyOf( used, size );
+        remaining = Arrays.copyOf( remaining, size );
+        numBlocks = Arrays.copyOf( numBlocks, size );
+        lastContact = Arrays.copyOf( lastContact, size );
+        nodeNameSet = Collections.unmodifiableSet( new LinkedHashSet<>( Arrays.asList( nodeNames ) ) );
+
+        return this;
+    }
+}
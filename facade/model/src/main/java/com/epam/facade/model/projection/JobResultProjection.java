@@ -14,6 +14,10 @@ public interface JobResultProjection {
     @Value("#{target.result}")
     boolean isSuccess();
 
+    //Job was killed on a remote call deadline, it is not successful then
+    @Value("#{target.timedOut}")
+    boolean isTimedOut();
+
     @Value("#{target.alerts}")
     List<String> getAlerts();
 
@@ -41,6 +41,11 @@ export class HdfsClusterHealthSummaryComponent {
     return this.hdfsHealthReport.jobResults.filter( jobResult => jobResult.success ).length;
   }
 
+  //Jobs killed on the execution deadline, their alerts tell which ones
+  getTimedOutJobsCount(): number {
+    return this.hdfsHealthReport.jobResults.filter( jobResult => jobResult.timedOut ).length;
+  }
+
   getAlertsCount(): number {
     return this.getAlerts().length;
   }
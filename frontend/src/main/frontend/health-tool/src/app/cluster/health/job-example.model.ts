@@ -1,3 +1,3 @@
 export class JobExample {
-  constructor( public name: string, public success: boolean, public alerts: string[] ){}
+  constructor( public name: string, public success: boolean, public alerts: string[], public timedOut: boolean = false ){}
 }
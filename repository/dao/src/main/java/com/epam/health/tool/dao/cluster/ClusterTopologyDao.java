@@ -0,0 +1,15 @@
+package com.epam.health.tool.dao.cluster;
+
+import com.epam.health.tool.model.ClusterTopologyEntity;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ClusterTopologyDao extends CrudRepository<ClusterTopologyEntity, Long> {
+    ClusterTopologyEntity findByClusterNameAndParamName( String clusterName, String paramName );
+    List<ClusterTopologyEntity> findByDiscoveredAtAfter( Date discoveredAfter );
+    List<ClusterTopologyEntity> findByClusterName( String clusterName );
+}
@@ -0,0 +1,92 @@
+package com.epam.health.tool.model;
+
+import com.epam.health.tool.common.AbstractManagedEntity;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * Discovered cluster param (active NameNode and RM addresses, live nodes, yarn dirs, examples jar path) kept over
+ * restarts. Bound to the cluster by name, rows of removed clusters are never read back into the context.
+ */
+@Entity
+@Table(name = ClusterTopologyEntity.TABLE_NAME, uniqueConstraints =
+        {
+                @UniqueConstraint(columnNames = {ClusterTopologyEntity.COLUMN_CLUSTER_NAME, ClusterTopologyEntity.COLUMN_PARAM_NAME})
+        })
+public class ClusterTopologyEntity extends AbstractManagedEntity {
+    public static final String TABLE_NAME = "cluster_topology";
+    public static final String COLUMN_CLUSTER_NAME = "cluster_name_";
+    public static final String COLUMN_PARAM_NAME = "param_name_";
+    public static final String COLUMN_PARAM_VALUE = "param_value_";
+    public static final String COLUMN_IS_LIST = "is_list_";
+    public static final String COLUMN_DISCOVERED_AT = "discovered_at_";
+
+    @NotNull
+    @Column(name = COLUMN_CLUSTER_NAME)
+    private String clusterName;
+
+    @NotNull
+    @Column(name = COLUMN_PARAM_NAME)
+    private String paramName;
+
+    //List values are comma separated
+    @Column(name = COLUMN_PARAM_VALUE)
+    @Lob
+    private String paramValue;
+
+    @Column(name = COLUMN_IS_LIST)
+    private boolean list;
+
+    @Column(name = COLUMN_DISCOVERED_AT)
+    private Date discoveredAt;
+
+    public ClusterTopologyEntity() {
+    }
+
+    public ClusterTopologyEntity(String clusterName, String paramName) {
+        this.clusterName = clusterName;
+        this.paramName = paramName;
+    }
+
+    public String getClusterName() {
+        return clusterName;
+    }
+
+    public void setClusterName(String clusterName) {
+        this.clusterName = clusterName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public void setParamName(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamValue() {
+        return paramValue;
+    }
+
+    public void setParamValue(String paramValue) {
+        this.paramValue = paramValue;
+    }
+
+    public boolean isList() {
+        return list;
+    }
+
+    public void setList(boolean list) {
+        this.list = list;
+    }
+
+    public Date getDiscoveredAt() {
+        return discoveredAt;
+    }
+
+    public void setDiscoveredAt(Date discoveredAt) {
+        this.discoveredAt = discoveredAt;
+    }
+}
@@ -22,6 +22,7 @@ public class JobResultEntity extends AbstractManagedEntity {
     public static final String COLUMN_JOB_NAME = "column_name_";
     public static final String COLUMN_DATE_OF_RUN = "date_of_run_";
     public static final String COLUMN_JOB_RESULT = "job_result_";
+    public static final String COLUMN_TIMED_OUT = "timed_out_";
     public static final String COLUMN_ALERTS = "alerts_";
     public static final String COLUMN_FK_CLUSTER_SERVICE_SNAPSHOT = ClusterServiceSnapshotEntity.TABLE_NAME;
 
@@ -34,6 +35,9 @@ public class JobResultEntity extends AbstractManagedEntity {
     @Column(name = COLUMN_JOB_RESULT)
     private boolean result;
 
+    @Column(name = COLUMN_TIMED_OUT)
+    private boolean timedOut;
+
     @Column(name = COLUMN_ALERTS)
     @Lob
     private String alerts;
@@ -78,6 +82,14 @@ public class JobResultEntity extends AbstractManagedEntity {
         this.result = result;
     }
 
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public void setTimedOut(boolean timedOut) {
+        this.timedOut = timedOut;
+    }
+
     public ClusterServiceSnapshotEntity getClusterServiceSnapshotEntity() {
         return clusterServiceSnapshotEntity;
     }
@@ -1,13 +1,12 @@
 package com.epam.util.common.file;
 
-import com.epam.util.common.copier.ByteCopierUtil;
-
 public class DownloadedFileWrapper {
   private byte[] byteFileContent;
   private String stringFileContent;
 
+  //Takes ownership of the array, callers must not modify it afterwards
   public DownloadedFileWrapper(byte[] byteFileContent ) {
-    this.byteFileContent = ByteCopierUtil.addBytesToArray( null, byteFileContent, byteFileContent.length );
+    this.byteFileContent = byteFileContent;
   }
 
   public DownloadedFileWrapper(String stringFileContent ) {
@@ -15,7 +14,7 @@ public class DownloadedFileWrapper {
   }
 
   public void setByteFileContent( byte[] byteFileContent ) {
-    this.byteFileContent = ByteCopierUtil.addBytesToArray( null, byteFileContent, byteFileContent.length );
+    this.byteFileContent = byteFileContent;
   }
 
   public void setStringFileContent( String stringFileContent ) {
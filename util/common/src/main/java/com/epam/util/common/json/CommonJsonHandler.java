@@ -1,28 +1,41 @@
 package com.epam.util.common.json;
 
 import com.epam.util.common.CommonUtilException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Shared by all callers, mapper and readers are thread safe and keep their deserializer caches between calls.
+ * Inner fields are bound straight from the tree node, without writing it back to a string.
+ */
 public class CommonJsonHandler {
-    private ObjectMapper objectMapper;
+    private static final CommonJsonHandler INSTANCE = new CommonJsonHandler();
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> typedReaders = new ConcurrentHashMap<>();
 
     private CommonJsonHandler() {
         this.objectMapper = new ObjectMapper();
     }
 
     public static CommonJsonHandler get() {
-        return new CommonJsonHandler();
+        return INSTANCE;
     }
 
     public <T> T getTypedValue( String jsonString, Class<T> valueType ) throws CommonUtilException {
         try {
-            return objectMapper.readValue(jsonString, valueType);
+            return getTypedReader( valueType ).readValue( jsonString );
         }
         catch ( IOException ex ){
             return null;
@@ -36,7 +49,7 @@ public class CommonJsonHandler {
                 source = extractChildJsonNode( source, fieldName );
             }
 
-            return source != null ? objectMapper.readValue(source.toString(), valueType) : null;
+            return source != null ? getTypedReader( valueType ).readValue( source ) : null;
         }
         catch ( IOException ex ){
             throw new CommonUtilException( ex );
@@ -50,7 +63,7 @@ public class CommonJsonHandler {
                 source = extractChildJsonNode( source, fieldName ).get(0);
             }
 
-            return source != null ? objectMapper.readValue(source.toString(), valueType) : null;
+            return source != null ? getTypedReader( valueType ).readValue( source ) : null;
         }
         catch ( IOException ex ){
             throw new CommonUtilException( ex );
@@ -66,9 +79,52 @@ public class CommonJsonHandler {
             }
 
             if ( source != null && source.isArray() ) {
-                Iterator iterator = source.elements();
+                ObjectReader typedReader = getTypedReader( valueType );
+                Iterator<JsonNode> iterator = source.elements();
                 while ( iterator.hasNext() ) {
-                    T typedValue = getTypedValue( iterator.next().toString(), valueType );
+                    T typedValue = readElement( typedReader, iterator.next() );
+                    if ( typedValue != null ) {
+                        result.add( typedValue );
+                    }
+                }
+            }
+
+            return result;
+        }
+        catch ( IOException ex ){
+            throw new CommonUtilException( ex );
+        }
+    }
+
+    //Streaming counterparts, only the target field is bound, the rest of the document is skipped while reading
+    public <T> T readTypedValueFromInnerField( InputStream jsonStream, Class<T> valueType, String... fieldNameChain ) throws CommonUtilException {
+        try ( JsonParser jsonParser = objectMapper.getFactory().createParser( jsonStream ) ) {
+            return moveToInnerField( jsonParser, fieldNameChain ) ? getTypedReader( valueType ).readValue( jsonParser ) : null;
+        }
+        catch ( IOException ex ){
+            throw new CommonUtilException( ex );
+        }
+    }
+
+    //First element of the array field, binding errors are thrown unlike in the list counterpart
+    public <T> T readTypedValueFromInnerFieldArrElement( InputStream jsonStream, Class<T> valueType, String... fieldNameChain ) throws CommonUtilException {
+        try ( JsonParser jsonParser = objectMapper.getFactory().createParser( jsonStream ) ) {
+            return moveToInnerField( jsonParser, fieldNameChain ) && jsonParser.currentToken() == JsonToken.START_ARRAY
+                    && jsonParser.nextToken() == JsonToken.START_OBJECT ? getTypedReader( valueType ).readValue( jsonParser ) : null;
+        }
+        catch ( IOException ex ){
+            throw new CommonUtilException( ex );
+        }
+    }
+
+    public <T> List<T> readListTypedValueFromInnerField( InputStream jsonStream, Class<T> valueType, String... fieldNameChain ) throws CommonUtilException {
+        try ( JsonParser jsonParser = objectMapper.getFactory().createParser( jsonStream ) ) {
+            List<T> result = new ArrayList<>();
+            if ( moveToInnerField( jsonParser, fieldNameChain ) && jsonParser.currentToken() == JsonToken.START_ARRAY ) {
+                ObjectReader typedReader = getTypedReader( valueType );
+                //Only one element is kept as a tree at a time
+                while ( jsonParser.nextToken() != JsonToken.END_ARRAY ) {
+                    T typedValue = readElement( typedReader, objectMapper.readTree( jsonParser ) );
                     if ( typedValue != null ) {
                         result.add( typedValue );
                     }
@@ -82,10 +138,70 @@ public class CommonJsonHandler {
         }
     }
 
+    //Elements that can't be bound are skipped, like invalid documents in getTypedValue
+    private <T> T readElement( ObjectReader typedReader, JsonNode element ) {
+        try {
+            return typedReader.readValue( element );
+        }
+        catch ( IOException ex ) {
+            return null;
+        }
+    }
+
+    private ObjectReader getTypedReader( Class<?> valueType ) {
+        return typedReaders.computeIfAbsent( valueType, objectMapper::readerFor );
+    }
+
     private JsonNode extractJsonNode( String jsonString ) throws IOException {
         return objectMapper.readTree( jsonString );
     }
 
+    //Leaves the parser on the value of the last field of the chain, same lookup as extractChildJsonNode
+    private boolean moveToInnerField( JsonParser jsonParser, String... fieldNameChain ) throws IOException {
+        if ( jsonParser.nextToken() == null ) {
+            return false;
+        }
+        for ( String fieldName : fieldNameChain ) {
+            if ( !moveToChildField( jsonParser, fieldName ) ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean moveToChildField( JsonParser jsonParser, String fieldName ) throws IOException {
+        if ( jsonParser.currentToken() == JsonToken.START_OBJECT ) {
+            return moveToObjectField( jsonParser, fieldName, false );
+        }
+        if ( jsonParser.currentToken() == JsonToken.START_ARRAY ) {
+            //First element having a non null field
+            JsonToken elementToken;
+            while ( ( elementToken = jsonParser.nextToken() ) != JsonToken.END_ARRAY && elementToken != null ) {
+                if ( elementToken == JsonToken.START_OBJECT && moveToObjectField( jsonParser, fieldName, true ) ) {
+                    return true;
+                }
+                jsonParser.skipChildren();
+            }
+        }
+
+        return false;
+    }
+
+    //Parser is either on the field value or on the end of the object
+    private boolean moveToObjectField( JsonParser jsonParser, String fieldName, boolean skipNull ) throws IOException {
+        while ( jsonParser.nextToken() == JsonToken.FIELD_NAME ) {
+            boolean matches = fieldName.equals( jsonParser.getCurrentName() );
+            JsonToken valueToken = jsonParser.nextToken();
+            if ( matches && !( skipNull && valueToken == JsonToken.VALUE_NULL ) ) {
+                return true;
+            }
+            jsonParser.skipChildren();
+        }
+
+        return false;
+    }
+
     private JsonNode extractChildJsonNode( JsonNode jsonNode, String fieldName ) throws IOException {
         if ( jsonNode != null && jsonNode.isArray() ) {
             Iterator<JsonNode> iterator = jsonNode.elements();
@@ -0,0 +1,135 @@
+package com.epam.util.common.xml;
+
+import org.apache.log4j.Logger;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Properties of *-site.xml files, each file is read once with StAX into an immutable name to value map.
+ * An index is kept per file path and read again when the file modification time or size changes.
+ */
+public class SiteConfigIndex {
+    private static final SiteConfigIndex INSTANCE = new SiteConfigIndex();
+
+    private final static Logger logger = Logger.getLogger( SiteConfigIndex.class );
+    private final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+    private final Map<String, IndexedFile> indexedFiles = new ConcurrentHashMap<>();
+
+    private SiteConfigIndex() {
+    }
+
+    public static SiteConfigIndex get() {
+        return INSTANCE;
+    }
+
+    //Null if the property or the file doesn't exist
+    public String getProperty( String pathToFile, String property ) {
+        return getProperties( pathToFile ).get( property );
+    }
+
+    //Only found properties are returned
+    public Map<String, String> getProperties( String pathToFile, Collection<String> properties ) {
+        Map<String, String> siteProperties = getProperties( pathToFile );
+        Map<String, String> result = new HashMap<>();
+        properties.forEach( property -> {
+            if ( siteProperties.containsKey( property ) ) {
+                result.put( property, siteProperties.get( property ) );
+            }
+        } );
+
+        return result;
+    }
+
+    public Map<String, String> getProperties( String pathToFile ) {
+        File siteFile = new File( pathToFile );
+        IndexedFile indexedFile = indexedFiles.get( pathToFile );
+        if ( indexedFile == null || !indexedFile.isUpToDate( siteFile ) ) {
+            indexedFile = indexedFiles.compute( pathToFile, ( path, current ) ->
+                    current != null && current.isUpToDate( siteFile ) ? current : readIndex( siteFile ) );
+        }
+
+        return indexedFile.properties;
+    }
+
+    public void invalidate( String pathToFile ) {
+        indexedFiles.remove( pathToFile );
+    }
+
+    private IndexedFile readIndex( File siteFile ) {
+        long lastModified = siteFile.lastModified();
+        long length = siteFile.length();
+        try ( InputStream in = new FileInputStream( siteFile ) ) {
+            return new IndexedFile( lastModified, length, Collections.unmodifiableMap( readProperties( in ) ) );
+        } catch ( IOException | XMLStreamException ex ) {
+            logger.error( "Can't read site file " + siteFile.getPath() + " - " + ex.getMessage() );
+
+            return new IndexedFile( lastModified, length, Collections.emptyMap() );
+        }
+    }
+
+    //Hadoop configuration layout - configuration/property/{name,value}, later definitions win
+    private Map<String, String> readProperties( InputStream in ) throws XMLStreamException {
+        Map<String, String> properties = new HashMap<>();
+        XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader( in );
+        try {
+            String name = null;
+            String value = null;
+            while ( xmlStreamReader.hasNext() ) {
+                int event = xmlStreamReader.next();
+                if ( event == XMLStreamConstants.START_ELEMENT ) {
+                    String element = xmlStreamReader.getLocalName();
+                    if ( "property".equals( element ) ) {
+                        name = null;
+                        value = null;
+                    } else if ( "name".equals( element ) ) {
+                        name = xmlStreamReader.getElementText().trim();
+                    } else if ( "value".equals( element ) ) {
+                        value = xmlStreamReader.getElementText().trim();
+                    }
+                } else if ( event == XMLStreamConstants.END_ELEMENT && "property".equals( xmlStreamReader.getLocalName() ) && name != null ) {
+                    properties.put( name, value != null ? value : "" );
+                }
+            }
+        } finally {
+            xmlStreamReader.close();
+        }
+
+        return properties;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+        xmlInputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+
+        return xmlInputFactory;
+    }
+
+    private static class IndexedFile {
+        private final long lastModified;
+        private final long length;
+        private final Map<String, String> properties;
+
+        private IndexedFile( long lastModified, long length, Map<String, String> properties ) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.properties = properties;
+        }
+
+        private boolean isUpToDate( File siteFile ) {
+            return siteFile.lastModified() == lastModified && siteFile.length() == length;
+        }
+    }
+}
@@ -23,25 +23,9 @@ public class XmlPropertyHandler {
 
   private final static Logger logger = Logger.getLogger( XmlPropertyHandler.class );
 
+  // Read *-site.xml file and return property value, return null if property was not found
   public static String readXmlPropertyValue( String pathToFile, String property ) {
-    // Read *-site.xml file and return property value, return null if property was not found
-    try {
-      NodeList list = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse( pathToFile )
-        .getElementsByTagName( "property" );
-      for ( int i = 0; i < list.getLength(); i++ ) {
-        Node node = list.item( i );
-
-        int itemNumber = findPropertyIndex( node );
-        if ( itemNumber != -1 && property
-          .equals( node.getChildNodes().item( itemNumber ).getFirstChild().getNodeValue() ) ) {
-          return node.getChildNodes().item( itemNumber + 2 ).getFirstChild().getNodeValue();
-        }
-      }
-    } catch ( ParserConfigurationException | IOException | SAXException pce ) {
-      logger.error( pce );
-    }
-
-    return null;
+    return SiteConfigIndex.get().getProperty( pathToFile, property );
   }
 
   public static void addPropertyToFile( String pathToFile, String name, String value ) {
@@ -59,6 +43,7 @@ public class XmlPropertyHandler {
       DOMSource source = new DOMSource( doc );
       StreamResult result = new StreamResult( new File( pathToFile ) );
       transformer.transform( source, result );
+      SiteConfigIndex.get().invalidate( pathToFile );
       logger.info( "Add property - " + name + " value -  " + value + " . To file - " + pathToFile );
     } catch ( ParserConfigurationException | TransformerException | IOException | SAXException pce ) {
       logger.error( pce.getMessage() );
@@ -84,6 +69,7 @@ public class XmlPropertyHandler {
       DOMSource source = new DOMSource( doc );
       StreamResult result = new StreamResult( new File( pathToFile ) );
       transformer.transform( source, result );
+      SiteConfigIndex.get().invalidate( pathToFile );
       logger.info( "Modify property - " + name + " value -  " + value + " . To file - " + pathToFile );
     } catch ( ParserConfigurationException | IOException | SAXException | TransformerException pce ) {
       logger.error( pce );
@@ -109,6 +95,7 @@ public class XmlPropertyHandler {
       DOMSource source = new DOMSource( doc );
       StreamResult result = new StreamResult( new File( pathToFile ) );
       transformer.transform( source, result );
+      SiteConfigIndex.get().invalidate( pathToFile );
       logger.info( "Remove property - " + name + " . From file - " + pathToFile );
     } catch ( ParserConfigurationException | IOException | SAXException | TransformerException pce ) {
       logger.error( pce );
@@ -0,0 +1,108 @@
+package com.epam.util.http;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that a web address accepts connections with a plain TCP connect instead of a full GET of the page.
+ * Results are kept per host and port for a TTL, a failed real request to the address drops the result.
+ */
+public class AddressAvailabilityProbe {
+    private static final AddressAvailabilityProbe INSTANCE = new AddressAvailabilityProbe();
+
+    private final static Logger logger = Logger.getLogger( AddressAvailabilityProbe.class );
+    private final Map<String, ProbeResult> probeResults = new ConcurrentHashMap<>();
+    private volatile int connectTimeoutMillis = 2000;
+    private volatile long availableTtlMillis = TimeUnit.MINUTES.toMillis( 1 );
+    private volatile long unavailableTtlMillis = TimeUnit.SECONDS.toMillis( 10 );
+
+    private AddressAvailabilityProbe() {
+    }
+
+    public static AddressAvailabilityProbe get() {
+        return INSTANCE;
+    }
+
+    public boolean isAvailable( String url ) {
+        String hostAndPort = toHostAndPort( url );
+        if ( hostAndPort == null ) {
+            return false;
+        }
+
+        ProbeResult probeResult = probeResults.get( hostAndPort );
+        if ( probeResult == null || probeResult.isExpired() ) {
+            probeResult = probe( url );
+            probeResults.put( hostAndPort, probeResult );
+        }
+
+        return probeResult.available;
+    }
+
+    public void invalidate( String url ) {
+        String hostAndPort = toHostAndPort( url );
+        if ( hostAndPort != null ) {
+            probeResults.remove( hostAndPort );
+        }
+    }
+
+    public void setConnectTimeout( long connectTimeout, TimeUnit timeUnit ) {
+        this.connectTimeoutMillis = (int) timeUnit.toMillis( connectTimeout );
+    }
+
+    public void setTtl( long availableTtl, long unavailableTtl, TimeUnit timeUnit ) {
+        this.availableTtlMillis = timeUnit.toMillis( availableTtl );
+        this.unavailableTtlMillis = timeUnit.toMillis( unavailableTtl );
+    }
+
+    private ProbeResult probe( String url ) {
+        URI uri = URI.create( url );
+        try ( Socket socket = new Socket() ) {
+            socket.connect( new InetSocketAddress( uri.getHost(), getPort( uri ) ), connectTimeoutMillis );
+
+            return new ProbeResult( true, availableTtlMillis );
+        } catch ( IOException | IllegalArgumentException ex ) {
+            logger.info( "Address " + url + " is not available - " + ex.getMessage() );
+
+            return new ProbeResult( false, unavailableTtlMillis );
+        }
+    }
+
+    private String toHostAndPort( String url ) {
+        try {
+            URI uri = URI.create( url );
+
+            return uri.getHost() != null ? uri.getHost() + ":" + getPort( uri ) : null;
+        } catch ( IllegalArgumentException | NullPointerException ex ) {
+            return null;
+        }
+    }
+
+    private int getPort( URI uri ) {
+        if ( uri.getPort() != -1 ) {
+            return uri.getPort();
+        }
+
+        return "https".equalsIgnoreCase( uri.getScheme() ) ? 443 : 80;
+    }
+
+    private static class ProbeResult {
+        private final boolean available;
+        private final long expiresAt;
+
+        private ProbeResult( boolean available, long ttlMillis ) {
+            this.available = available;
+            this.expiresAt = System.currentTimeMillis() + ttlMillis;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
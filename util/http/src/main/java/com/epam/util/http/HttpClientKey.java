@@ -0,0 +1,55 @@
+package com.epam.util.http;
+
+import java.util.Objects;
+
+/**
+ * Identifies a pooled http client. Group is the owner of the client (a cluster), clients of one group
+ * are dropped together when its settings change.
+ */
+public class HttpClientKey {
+    private final String group;
+    private final String authMode;
+    private final String username;
+
+    public HttpClientKey( String group, String authMode, String username ) {
+        this.group = group;
+        this.authMode = authMode;
+        this.username = username;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getAuthMode() {
+        return authMode;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() ) {
+            return false;
+        }
+        HttpClientKey that = (HttpClientKey) o;
+        return Objects.equals( group, that.group ) &&
+                Objects.equals( authMode, that.authMode ) &&
+                Objects.equals( username, that.username );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash( group, authMode, username );
+    }
+
+    @Override
+    public String toString() {
+        return group + "/" + authMode + "/" + username;
+    }
+}
@@ -0,0 +1,209 @@
+package com.epam.util.http;
+
+import com.epam.util.common.CommonUtilException;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps one long-lived http client with a pooled connection manager per key, so repeated requests to the same
+ * cluster reuse kept-alive connections instead of paying TCP and TLS setup. A background evictor closes expired
+ * and idle connections and clients that were not used for a while.
+ * Clients are leased for the time of a call, an evicted or invalidated client is closed once its last call is done.
+ */
+public class HttpClientPool {
+    private static final long EVICTION_PERIOD_SECONDS = 30;
+    private static final HttpClientPool INSTANCE = new HttpClientPool();
+
+    private final static Logger logger = Logger.getLogger( HttpClientPool.class );
+    private final Map<HttpClientKey, PooledHttpClient> clients = new ConcurrentHashMap<>();
+    private volatile int maxConnectionsPerRoute = 4;
+    private volatile int maxConnectionsTotal = 20;
+    private volatile long keepAliveMillis = TimeUnit.SECONDS.toMillis( 30 );
+    private volatile long idleConnectionMillis = TimeUnit.SECONDS.toMillis( 60 );
+    private volatile long idleClientMillis = TimeUnit.MINUTES.toMillis( 10 );
+
+    private HttpClientPool() {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            Thread thread = new Thread( runnable, "http-client-pool-evictor" );
+            thread.setDaemon( true );
+
+            return thread;
+        } );
+        evictor.scheduleWithFixedDelay( this::evictIdle, EVICTION_PERIOD_SECONDS, EVICTION_PERIOD_SECONDS, TimeUnit.SECONDS );
+    }
+
+    public static HttpClientPool get() {
+        return INSTANCE;
+    }
+
+    //Builder setup is applied only when the client for the key is created, the client isn't closed while the call runs
+    public <T> T executeWithClient( HttpClientKey key, Function<HttpClientBuilder, HttpClientBuilder> builderSetup,
+                                    IHttpClientCall<T> clientCall ) throws IOException, CommonUtilException {
+        PooledHttpClient pooledHttpClient = lease( key, builderSetup );
+        try {
+            return clientCall.execute( pooledHttpClient.httpClient );
+        } finally {
+            release( key, pooledHttpClient );
+        }
+    }
+
+    public void invalidate( String group ) {
+        clients.keySet().stream().filter( key -> key.getGroup().equals( group ) ).forEach( this::close );
+    }
+
+    public void closeAll() {
+        clients.keySet().forEach( this::close );
+    }
+
+    public void setMaxConnections( int maxConnectionsPerRoute, int maxConnectionsTotal ) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnectionsTotal = maxConnectionsTotal;
+    }
+
+    public void setKeepAlive( long keepAlive, TimeUnit timeUnit ) {
+        this.keepAliveMillis = timeUnit.toMillis( keepAlive );
+    }
+
+    public void setIdleTimeouts( long idleConnectionTimeout, long idleClientTimeout, TimeUnit timeUnit ) {
+        this.idleConnectionMillis = timeUnit.toMillis( idleConnectionTimeout );
+        this.idleClientMillis = timeUnit.toMillis( idleClientTimeout );
+    }
+
+    //Client retired between the lookup and the lease is replaced with a new one
+    private PooledHttpClient lease( HttpClientKey key, Function<HttpClientBuilder, HttpClientBuilder> builderSetup ) {
+        while ( true ) {
+            PooledHttpClient pooledHttpClient = clients.computeIfAbsent( key, clientKey -> createClient( clientKey, builderSetup ) );
+            synchronized ( pooledHttpClient ) {
+                if ( !pooledHttpClient.retired ) {
+                    pooledHttpClient.leases++;
+                    pooledHttpClient.lastUsed = System.currentTimeMillis();
+
+                    return pooledHttpClient;
+                }
+            }
+            clients.remove( key, pooledHttpClient );
+        }
+    }
+
+    private void release( HttpClientKey key, PooledHttpClient pooledHttpClient ) {
+        synchronized ( pooledHttpClient ) {
+            pooledHttpClient.leases--;
+            pooledHttpClient.lastUsed = System.currentTimeMillis();
+            if ( !pooledHttpClient.retired || pooledHttpClient.leases > 0 ) {
+                return;
+            }
+        }
+        closeClient( key, pooledHttpClient );
+    }
+
+    private PooledHttpClient createClient( HttpClientKey key, Function<HttpClientBuilder, HttpClientBuilder> builderSetup ) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager( createSocketFactoryRegistry() );
+        connectionManager.setDefaultMaxPerRoute( maxConnectionsPerRoute );
+        connectionManager.setMaxTotal( maxConnectionsTotal );
+        //Stale check before reusing a connection idle for longer than a few seconds
+        connectionManager.setValidateAfterInactivity( 5000 );
+
+        long keepAlive = keepAliveMillis;
+        CloseableHttpClient httpClient = builderSetup.apply( HttpClientBuilder.create() )
+                .setConnectionManager( connectionManager )
+                .setKeepAliveStrategy( ( response, context ) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration( response, context );
+
+                    return serverKeepAlive > 0 ? Math.min( serverKeepAlive, keepAlive ) : keepAlive;
+                } ).build();
+        logger.debug( "Created pooled http client " + key );
+
+        return new PooledHttpClient( httpClient, connectionManager );
+    }
+
+    //Connection manager replaces the builder ssl setup, so trust-all is applied to its socket factory
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry() {
+        RegistryBuilder<ConnectionSocketFactory> registryBuilder = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register( "http", PlainConnectionSocketFactory.getSocketFactory() );
+        try {
+            registryBuilder.register( "https", new SSLConnectionSocketFactory( SslContextCreator.get().createSslContextAllowAll(),
+                    NoopHostnameVerifier.INSTANCE ) );
+        } catch ( CommonUtilException ex ) {
+            logger.error( "Can't create trust-all ssl context, using default one", ex );
+            registryBuilder.register( "https", SSLConnectionSocketFactory.getSocketFactory() );
+        }
+
+        return registryBuilder.build();
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        clients.forEach( ( key, pooledHttpClient ) -> {
+            if ( pooledHttpClient.isIdle( now, idleClientMillis ) ) {
+                close( key );
+            } else {
+                pooledHttpClient.connectionManager.closeExpiredConnections();
+                pooledHttpClient.connectionManager.closeIdleConnections( idleConnectionMillis, TimeUnit.MILLISECONDS );
+            }
+        } );
+    }
+
+    //Leased client is only retired, the last release closes it
+    private void close( HttpClientKey key ) {
+        PooledHttpClient pooledHttpClient = clients.remove( key );
+        if ( pooledHttpClient == null ) {
+            return;
+        }
+
+        synchronized ( pooledHttpClient ) {
+            pooledHttpClient.retired = true;
+            if ( pooledHttpClient.leases > 0 ) {
+                return;
+            }
+        }
+        closeClient( key, pooledHttpClient );
+    }
+
+    private void closeClient( HttpClientKey key, PooledHttpClient pooledHttpClient ) {
+        try {
+            pooledHttpClient.httpClient.close();
+        } catch ( IOException ex ) {
+            logger.warn( "Can't close http client " + key + " - " + ex.getMessage() );
+        }
+    }
+
+    @FunctionalInterface
+    public interface IHttpClientCall<T> {
+        T execute( CloseableHttpClient httpClient ) throws IOException, CommonUtilException;
+    }
+
+    private static class PooledHttpClient {
+        private final CloseableHttpClient httpClient;
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private volatile long lastUsed = System.currentTimeMillis();
+        //Guarded by the pooled client itself
+        private int leases;
+        private boolean retired;
+
+        private PooledHttpClient( CloseableHttpClient httpClient, PoolingHttpClientConnectionManager connectionManager ) {
+            this.httpClient = httpClient;
+            this.connectionManager = connectionManager;
+        }
+
+        private synchronized boolean isIdle( long now, long idleClientMillis ) {
+            return leases == 0 && now - lastUsed > idleClientMillis;
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.epam.util.http;
 
 import com.epam.util.common.CommonUtilException;
 import com.epam.util.http.header.IHeaderCreator;
+import org.apache.http.HttpEntity;
 import org.apache.http.auth.AuthSchemeProvider;
 import org.apache.http.client.AuthCache;
 import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.config.Registry;
@@ -17,20 +20,35 @@ import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 public class HttpRequestExecutor {
+    private static final ScheduledExecutorService REQUEST_DEADLINES = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "http-request-deadline" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
     private CredentialsProvider credentialsProvider;
     private Registry<AuthSchemeProvider> authSchemeRegistry;
     //HttpClientBuilder setup chaining functions
     private Function<HttpClientBuilder, HttpClientBuilder> httpClientBuilderSetupAction;
     private AuthCache authCache;
     private IHeaderCreator headerCreator;
+    private HttpTimeouts httpTimeouts = HttpTimeouts.getDefault();
+    private HttpClientKey clientKey;
 
     private HttpRequestExecutor() {
-        httpClientBuilderSetupAction = this::setSslContextAllowAll;
-        httpClientBuilderSetupAction.andThen( this::setDefaultAuthSchemeRegistry );
-        httpClientBuilderSetupAction.andThen( this::setDefaultCredentialsProvider );
+        httpClientBuilderSetupAction = ( (Function<HttpClientBuilder, HttpClientBuilder>) this::setSslContextAllowAll )
+                .andThen( this::setDefaultAuthSchemeRegistry )
+                .andThen( this::setDefaultCredentialsProvider );
     }
 
     public static HttpRequestExecutor get(){
@@ -63,16 +81,85 @@ public class HttpRequestExecutor {
         return this;
     }
 
+    //Requests with a client key share one pooled client, others use a client closed after the request
+    public HttpRequestExecutor setClientKey( HttpClientKey clientKey ) {
+        this.clientKey = clientKey;
+
+        return this;
+    }
+
+    public HttpRequestExecutor setTimeouts( HttpTimeouts httpTimeouts ) {
+        if ( httpTimeouts != null ) {
+            this.httpTimeouts = httpTimeouts;
+        }
+
+        return this;
+    }
+
+    //The request is aborted when the overall deadline passes, failure cause is a TimeoutException then
     public String executeUrlRequest(String url ) throws CommonUtilException {
+        return executeRequest( url, EntityUtils::toString );
+    }
+
+    //Body is handed to the reader as a stream, null when the response has no body
+    public <T> T executeUrlRequest( String url, IHttpResponseReader<T> responseReader ) throws CommonUtilException {
+        return executeRequest( url, entity -> {
+            try {
+                return responseReader.read( entity.getContent() );
+            } finally {
+                //Rest of the body is drained, so the connection can be reused
+                EntityUtils.consume( entity );
+            }
+        } );
+    }
+
+    private <T> T executeRequest( String url, IHttpEntityReader<T> entityReader ) throws CommonUtilException {
+        AtomicBoolean aborted = new AtomicBoolean( false );
+        ScheduledFuture<?> deadline = null;
         try {
             HttpContext httpContext = getCredentialContext();
-
-            return EntityUtils.toString(  createHttpClient().execute( createHttpUriRequest( url, httpContext ), httpContext ).getEntity() );
+            HttpUriRequest httpUriRequest = createHttpUriRequest( url, httpContext );
+            deadline = scheduleAbort( httpUriRequest, aborted );
+
+            if ( clientKey != null ) {
+                return HttpClientPool.get().executeWithClient( clientKey, this::setupHttpClientBuilder,
+                        httpClient -> execute( httpClient, httpUriRequest, httpContext, entityReader ) );
+            }
+            try ( CloseableHttpClient httpClient = createHttpClient() ) {
+                return execute( httpClient, httpUriRequest, httpContext, entityReader );
+            }
         } catch (IOException e) {
+            if ( aborted.get() ) {
+                throw new CommonUtilException( "Request to " + url + " timed out after " + httpTimeouts.getRequestTimeoutMillis() + " ms",
+                        new TimeoutException( e.getMessage() ) );
+            }
             throw new CommonUtilException( e );
+        } finally {
+            if ( deadline != null ) {
+                deadline.cancel( false );
+            }
+        }
+    }
+
+    //Reading the entity to the end returns the connection to the pool
+    private <T> T execute( CloseableHttpClient httpClient, HttpUriRequest httpUriRequest, HttpContext httpContext,
+                           IHttpEntityReader<T> entityReader ) throws IOException, CommonUtilException {
+        try ( CloseableHttpResponse response = httpClient.execute( httpUriRequest, httpContext ) ) {
+            return response.getEntity() != null ? entityReader.read( response.getEntity() ) : null;
         }
     }
 
+    private ScheduledFuture<?> scheduleAbort( HttpUriRequest httpUriRequest, AtomicBoolean aborted ) {
+        if ( httpTimeouts.getRequestTimeoutMillis() <= 0 ) {
+            return null;
+        }
+
+        return REQUEST_DEADLINES.schedule( () -> {
+            aborted.set( true );
+            httpUriRequest.abort();
+        }, httpTimeouts.getRequestTimeoutMillis(), TimeUnit.MILLISECONDS );
+    }
+
     private HttpClientContext getCredentialContext() {
         HttpClientContext context = HttpClientContext.create();
 
@@ -84,16 +171,19 @@ public class HttpRequestExecutor {
         return context;
     }
 
-    private HttpClient createHttpClient() throws CommonUtilException {
-        return createHttpClientBuilder().build();
+    private CloseableHttpClient createHttpClient() {
+        return setupHttpClientBuilder( HttpClients.custom() ).build();
     }
 
-    private HttpClientBuilder createHttpClientBuilder() throws CommonUtilException {
-        return httpClientBuilderSetupAction.apply( HttpClients.custom());
+    private HttpClientBuilder setupHttpClientBuilder( HttpClientBuilder httpClientBuilder ) {
+        return httpClientBuilderSetupAction.apply( httpClientBuilder );
     }
 
     private HttpUriRequest createHttpUriRequest( String uri, HttpContext httpClientContext ) throws CommonUtilException {
-        HttpUriRequest httpUriRequest = new HttpGet( uri );
+        HttpRequestBase httpUriRequest = new HttpGet( uri );
+        httpUriRequest.setConfig( RequestConfig.custom().setConnectTimeout( httpTimeouts.getConnectTimeout() )
+                .setConnectionRequestTimeout( httpTimeouts.getConnectTimeout() )
+                .setSocketTimeout( httpTimeouts.getReadTimeout() ).build() );
 
         if ( headerCreator != null ) {
             httpUriRequest.setHeader( headerCreator.createHeader( httpUriRequest, httpClientContext ) );
@@ -120,4 +210,9 @@ public class HttpRequestExecutor {
             return httpClientBuilder;
         }
     }
+
+    @FunctionalInterface
+    private interface IHttpEntityReader<T> {
+        T read( HttpEntity entity ) throws IOException, CommonUtilException;
+    }
 }
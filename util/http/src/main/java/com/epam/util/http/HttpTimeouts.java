@@ -0,0 +1,51 @@
+package com.epam.util.http;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadlines of http requests. Connect covers connection setup, read the longest silence on the socket
+ * and request the whole exchange including reading the body. Zero disables a timeout.
+ */
+public class HttpTimeouts {
+    private static volatile HttpTimeouts defaultTimeouts = new HttpTimeouts( TimeUnit.SECONDS.toMillis( 10 ),
+            TimeUnit.SECONDS.toMillis( 60 ), TimeUnit.MINUTES.toMillis( 2 ) );
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long requestTimeoutMillis;
+
+    public HttpTimeouts( long connectTimeoutMillis, long readTimeoutMillis, long requestTimeoutMillis ) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    public static HttpTimeouts getDefault() {
+        return defaultTimeouts;
+    }
+
+    public static void setDefault( HttpTimeouts httpTimeouts ) {
+        defaultTimeouts = httpTimeouts;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    //HttpClient takes int timeouts, 0 means no timeout
+    int getConnectTimeout() {
+        return (int) Math.min( connectTimeoutMillis, Integer.MAX_VALUE );
+    }
+
+    int getReadTimeout() {
+        return (int) Math.min( readTimeoutMillis, Integer.MAX_VALUE );
+    }
+}
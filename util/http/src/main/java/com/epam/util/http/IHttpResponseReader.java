@@ -0,0 +1,14 @@
+package com.epam.util.http;
+
+import com.epam.util.common.CommonUtilException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the response body while the connection is open, so it doesn't have to be kept as a string.
+ */
+@FunctionalInterface
+public interface IHttpResponseReader<T> {
+    T read( InputStream content ) throws IOException, CommonUtilException;
+}
@@ -0,0 +1,184 @@
+package com.epam.util.jmh.json;
+
+import com.epam.util.common.CommonUtilException;
+import com.epam.util.common.json.CommonJsonHandler;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming vs tree parsing of the answers the checks read: an inner field at the end of a JMX answer and
+ * the application list of a YARN answer. The legacy variants are the handler as it was before the shared mapper,
+ * a new mapper per call and every inner node written back to a string and parsed again.
+ * Tree variants decode the body to a string first, like the callers of the string methods do.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CommonJsonHandlerBenchmark {
+    @Param( { "10", "1000" } )
+    private int elementCount;
+
+    private byte[] jmxAnswer;
+    private byte[] applicationsAnswer;
+
+    @Setup
+    public void setUp() {
+        jmxAnswer = createJmxAnswer( elementCount ).getBytes( StandardCharsets.UTF_8 );
+        applicationsAnswer = createApplicationsAnswer( elementCount ).getBytes( StandardCharsets.UTF_8 );
+    }
+
+    @Benchmark
+    public String innerFieldLegacy() throws IOException {
+        JsonNode source = new ObjectMapper().readTree( new String( jmxAnswer, StandardCharsets.UTF_8 ) );
+        source = extractChildJsonNode( extractChildJsonNode( source, "beans" ), "State" );
+
+        return new ObjectMapper().readValue( source.toString(), String.class );
+    }
+
+    @Benchmark
+    public String innerFieldTree() throws CommonUtilException {
+        return CommonJsonHandler.get().getTypedValueFromInnerField( new String( jmxAnswer, StandardCharsets.UTF_8 ), String.class, "beans", "State" );
+    }
+
+    @Benchmark
+    public String innerFieldStreaming() throws CommonUtilException {
+        return CommonJsonHandler.get().readTypedValueFromInnerField( new ByteArrayInputStream( jmxAnswer ), String.class, "beans", "State" );
+    }
+
+    @Benchmark
+    public List<Application> listLegacy() throws IOException {
+        List<Application> result = new ArrayList<>();
+        JsonNode source = new ObjectMapper().readTree( new String( applicationsAnswer, StandardCharsets.UTF_8 ) );
+        source = extractChildJsonNode( extractChildJsonNode( source, "apps" ), "app" );
+        Iterator<JsonNode> iterator = source.elements();
+        while ( iterator.hasNext() ) {
+            result.add( new ObjectMapper().readValue( iterator.next().toString(), Application.class ) );
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public List<Application> listTree() throws CommonUtilException {
+        return CommonJsonHandler.get().getListTypedValueFromInnerField( new String( applicationsAnswer, StandardCharsets.UTF_8 ),
+                Application.class, "apps", "app" );
+    }
+
+    @Benchmark
+    public List<Application> listStreaming() throws CommonUtilException {
+        return CommonJsonHandler.get().readListTypedValueFromInnerField( new ByteArrayInputStream( applicationsAnswer ),
+                Application.class, "apps", "app" );
+    }
+
+    private static JsonNode extractChildJsonNode( JsonNode jsonNode, String fieldName ) {
+        if ( jsonNode != null && jsonNode.isArray() ) {
+            Iterator<JsonNode> iterator = jsonNode.elements();
+            while ( iterator.hasNext() ) {
+                JsonNode childJsonNode = iterator.next();
+                if ( childJsonNode.hasNonNull( fieldName ) ) {
+                    return childJsonNode.get( fieldName );
+                }
+            }
+        }
+
+        return jsonNode != null ? jsonNode.get( fieldName ) : null;
+    }
+
+    //Unrelated beans first, the state is in the last one like in a full /jmx answer
+    private static String createJmxAnswer( int beanCount ) {
+        StringBuilder answer = new StringBuilder( "{\"beans\":[" );
+        for ( int i = 0; i < beanCount; i++ ) {
+            answer.append( "{\"name\":\"Hadoop:service=NameNode,name=Metrics" ).append( i )
+                    .append( "\",\"modelerType\":\"Metrics\",\"tag.Context\":\"dfs\",\"tag.Hostname\":\"node" ).append( i )
+                    .append( ".example.com\",\"CallQueueLength\":" ).append( i )
+                    .append( ",\"RpcProcessingTimeAvgTime\":0.25,\"Histogram\":[1,2,3,4,5,6,7,8]}," );
+        }
+
+        return answer.append( "{\"name\":\"Hadoop:service=NameNode,name=NameNodeStatus\",\"State\":\"active\"}]}" ).toString();
+    }
+
+    private static String createApplicationsAnswer( int applicationCount ) {
+        StringBuilder answer = new StringBuilder( "{\"apps\":{\"app\":[" );
+        for ( int i = 0; i < applicationCount; i++ ) {
+            answer.append( i > 0 ? "," : "" ).append( "{\"id\":\"application_1526000000000_" ).append( i )
+                    .append( "\",\"user\":\"hdfs\",\"name\":\"QuasiMonteCarlo\",\"queue\":\"default\",\"state\":\"FINISHED\"" )
+                    .append( ",\"finalStatus\":\"SUCCEEDED\",\"progress\":100.0,\"trackingUrl\":\"http://rm.example.com:8088/proxy/" )
+                    .append( i ).append( "\",\"diagnostics\":\"\",\"startedTime\":1526000000000,\"finishedTime\":1526000060000" )
+                    .append( ",\"allocatedMB\":-1,\"allocatedVCores\":-1,\"runningContainers\":-1}" );
+        }
+
+        return answer.append( "]}}" ).toString();
+    }
+
+    @JsonIgnoreProperties( ignoreUnknown = true )
+    public static class Application {
+        private String id;
+        private String user;
+        private String state;
+        private long startedTime;
+        private long finishedTime;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public void setUser(String user) {
+            this.user = user;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public void setState(String state) {
+            this.state = state;
+        }
+
+        public long getStartedTime() {
+            return startedTime;
+        }
+
+        public void setStartedTime(long startedTime) {
+            this.startedTime = startedTime;
+        }
+
+        public long getFinishedTime() {
+            return finishedTime;
+        }
+
+        public void setFinishedTime(long finishedTime) {
+            this.finishedTime = finishedTime;
+        }
+    }
+}
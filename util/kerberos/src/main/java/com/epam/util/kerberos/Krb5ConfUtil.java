@@ -0,0 +1,95 @@
+package com.epam.util.kerberos;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * krb5.conf handling for several clusters in one JVM. Krb5 configuration is JVM wide, so configs of all clusters are
+ * merged into one file - realms and domain mappings of every cluster, the first definition of a key wins.
+ */
+public class Krb5ConfUtil {
+    private static final String NO_SECTION = "";
+    private static final String LIBDEFAULTS = "libdefaults";
+    private static final String DEFAULT_REALM = "default_realm";
+
+    public static String merge( Collection<String> krb5Configs ) {
+        Map<String, Map<String, String>> mergedSections = new LinkedHashMap<>();
+        krb5Configs.forEach( krb5Config -> parse( krb5Config ).forEach( ( section, entries ) -> {
+            Map<String, String> mergedEntries = mergedSections.computeIfAbsent( section, key -> new LinkedHashMap<>() );
+            entries.forEach( mergedEntries::putIfAbsent );
+        } ) );
+
+        StringBuilder merged = new StringBuilder();
+        mergedSections.forEach( ( section, entries ) -> {
+            if ( !NO_SECTION.equals( section ) ) {
+                merged.append( "[" ).append( section ).append( "]\n" );
+            }
+            entries.values().forEach( entry -> merged.append( entry ).append( "\n" ) );
+            merged.append( "\n" );
+        } );
+
+        return merged.toString();
+    }
+
+    //Null if libdefaults has no default_realm
+    public static String getDefaultRealm( String krb5Config ) {
+        String entry = parse( krb5Config ).getOrDefault( LIBDEFAULTS, new LinkedHashMap<>() ).get( DEFAULT_REALM );
+
+        return entry != null ? entry.substring( entry.indexOf( '=' ) + 1 ).trim() : null;
+    }
+
+    //Section name to entries by key, a realm block is a single entry. Include directives point to remote paths and are dropped
+    private static Map<String, Map<String, String>> parse( String krb5Config ) {
+        Map<String, Map<String, String>> sections = new LinkedHashMap<>();
+        Map<String, String> entries = sections.computeIfAbsent( NO_SECTION, key -> new LinkedHashMap<>() );
+        List<String> block = new ArrayList<>();
+        String blockKey = null;
+        int depth = 0;
+
+        for ( String line : krb5Config.split( "\\r?\\n" ) ) {
+            String trimmed = line.trim();
+            if ( depth > 0 ) {
+                block.add( line );
+                depth += countBraces( trimmed );
+                if ( depth <= 0 ) {
+                    entries.putIfAbsent( blockKey, String.join( "\n", block ) );
+                    block.clear();
+                    depth = 0;
+                }
+            } else if ( trimmed.isEmpty() || trimmed.startsWith( "#" ) || trimmed.startsWith( ";" )
+                    || trimmed.startsWith( "include" ) ) {
+                continue;
+            } else if ( trimmed.startsWith( "[" ) && trimmed.endsWith( "]" ) ) {
+                entries = sections.computeIfAbsent( trimmed.substring( 1, trimmed.length() - 1 ).trim(), key -> new LinkedHashMap<>() );
+            } else {
+                String key = trimmed.contains( "=" ) ? trimmed.substring( 0, trimmed.indexOf( '=' ) ).trim() : trimmed;
+                depth = countBraces( trimmed );
+                if ( depth > 0 ) {
+                    blockKey = key;
+                    block.add( line );
+                } else {
+                    entries.putIfAbsent( key, line );
+                    depth = 0;
+                }
+            }
+        }
+
+        return sections;
+    }
+
+    private static int countBraces( String line ) {
+        int count = 0;
+        for ( char symbol : line.toCharArray() ) {
+            if ( symbol == '{' ) {
+                count++;
+            } else if ( symbol == '}' ) {
+                count--;
+            }
+        }
+
+        return count;
+    }
+}
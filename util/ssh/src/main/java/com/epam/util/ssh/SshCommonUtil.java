@@ -2,6 +2,7 @@ package com.epam.util.ssh;
 
 import com.epam.util.ssh.executor.impl.SshCommandExecutor;
 import com.epam.util.ssh.executor.impl.SshSftpDownloader;
+import com.epam.util.ssh.executor.impl.SshSftpUploader;
 
 public class SshCommonUtil {
     public static SshCommandExecutor buildSshCommandExecutor( String username, String password, String identityPath ) {
@@ -11,4 +12,8 @@ public class SshCommonUtil {
     public static SshSftpDownloader buildSshSftpDownloader( String username, String password, String identityPath ) {
         return new SshSftpDownloader( username, password, identityPath );
     }
+
+    public static SshSftpUploader buildSshSftpUploader( String username, String password, String identityPath ) {
+        return new SshSftpUploader( username, password, identityPath );
+    }
 }
@@ -0,0 +1,125 @@
+package com.epam.util.ssh.batch;
+
+import com.epam.util.common.StringUtils;
+import com.epam.util.ssh.delegating.SshExecResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps several commands into one shell script, so they can be run on a single exec channel.
+ * Every command runs in its own subshell between unique start/end markers written to both streams,
+ * the end marker carries the command exit code.
+ */
+public class SshCommandBatch {
+    private final List<String> commands;
+    private final String delimiter;
+
+    private SshCommandBatch( List<String> commands ) {
+        this.commands = Collections.unmodifiableList( new ArrayList<>( commands ) );
+        this.delimiter = "__HCT_BATCH_" + UUID.randomUUID().toString().replace( "-", "" );
+    }
+
+    public static SshCommandBatch of( List<String> commands ) {
+        return new SshCommandBatch( commands );
+    }
+
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    public String toScript() {
+        StringBuilder script = new StringBuilder();
+        for ( int i = 0; i < commands.size(); i++ ) {
+            script.append( "echo '" ).append( startMarker( i ) ).append( "'; " )
+                    .append( "echo '" ).append( startMarker( i ) ).append( "' >&2; " )
+                    .append( "( " ).append( commands.get( i ).trim() ).append( "\n); " )
+                    .append( "__hct_rc=$?; echo; echo '" ).append( endMarker( i ) ).append( ":'$__hct_rc; " )
+                    .append( "echo >&2; echo '" ).append( endMarker( i ) ).append( "' >&2\n" );
+        }
+
+        return script.toString();
+    }
+
+    public List<SshExecResult> splitResult( SshExecResult batchResult ) {
+        List<SshExecResult> results = new ArrayList<>( commands.size() );
+        for ( int i = 0; i < commands.size(); i++ ) {
+            String out = batchResult.getOutMessage();
+            int exitCode = extractExitCode( out, i );
+            //Commands not finished before the batch was killed are timed out
+            results.add( SshExecResult.SshExecResultBuilder.get()
+                    .appendToOut( extractSegment( out, i ) )
+                    .appendToErr( extractSegment( batchResult.getErrMessage(), i ) )
+                    .setExitCode( exitCode ).setTimedOut( batchResult.isTimedOut() && exitCode == -1 ).build() );
+        }
+
+        return results;
+    }
+
+    private String extractSegment( String stream, int index ) {
+        String start = startMarker( index );
+        int startIndex = stream.indexOf( start );
+        if ( startIndex < 0 ) {
+            return StringUtils.EMPTY;
+        }
+        startIndex = skipLineBreak( stream, startIndex + start.length() );
+        int endIndex = stream.indexOf( endMarker( index ), startIndex );
+        String segment = endIndex < 0 ? stream.substring( startIndex ) : stream.substring( startIndex, endIndex );
+
+        return removeMarkerLines( trimAddedLineBreak( segment ) );
+    }
+
+    private int extractExitCode( String out, int index ) {
+        String end = endMarker( index ) + ":";
+        int endIndex = out.indexOf( end );
+        if ( endIndex < 0 ) {
+            return -1;
+        }
+        int codeStart = endIndex + end.length();
+        int codeEnd = codeStart;
+        while ( codeEnd < out.length() && Character.isDigit( out.charAt( codeEnd ) ) ) {
+            codeEnd++;
+        }
+
+        return codeEnd > codeStart ? Integer.parseInt( out.substring( codeStart, codeEnd ) ) : -1;
+    }
+
+    private int skipLineBreak( String stream, int index ) {
+        if ( index < stream.length() && stream.charAt( index ) == '\r' ) {
+            index++;
+        }
+
+        return index < stream.length() && stream.charAt( index ) == '\n' ? index + 1 : index;
+    }
+
+    //Drop the line break echoed before the end marker
+    private String trimAddedLineBreak( String segment ) {
+        if ( segment.endsWith( "\r\n" ) ) {
+            return segment.substring( 0, segment.length() - 2 );
+        }
+
+        return segment.endsWith( "\n" ) ? segment.substring( 0, segment.length() - 1 ) : segment;
+    }
+
+    //With a pty (sudo) stderr markers are merged into stdout
+    private String removeMarkerLines( String segment ) {
+        if ( !segment.contains( delimiter ) ) {
+            return segment;
+        }
+
+        return Arrays.stream( segment.split( "\n" ) ).filter( line -> !line.contains( delimiter ) )
+                .collect( Collectors.joining( "\n" ) );
+    }
+
+    private String startMarker( int index ) {
+        return delimiter + ":START:" + index;
+    }
+
+    private String endMarker( int index ) {
+        return delimiter + ":END:" + index;
+    }
+}
@@ -2,39 +2,57 @@ package com.epam.util.ssh.delegating;
 
 import com.epam.util.common.CheckingParamsUtil;
 import com.epam.util.common.StringUtils;
-import com.epam.util.common.copier.ByteCopierUtil;
 import com.jcraft.jsch.*;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 public class DelegatingSshSession implements Closeable {
+  private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+  private static final long MAX_IN_MEMORY_SIZE = Integer.MAX_VALUE - 8;
+  private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial( () -> new byte[ TRANSFER_BUFFER_SIZE ] );
+
   private Session session;
+  private Runnable releaseAction;
 
   public DelegatingSshSession( String user, String host, int port, String password, String identityPath )
     throws IOException {
-    session = createSession( user, host, port, password, identityPath );
+    session = openSession( user, host, port, password, identityPath );
   }
 
   public DelegatingSshSession( String user, String host, String password, String identityPath )
           throws IOException {
-    session = createSession( user, host, 22, password, identityPath );
+    session = openSession( user, host, 22, password, identityPath );
+  }
+
+  //Wraps an already connected (pooled) session, close() gives it back instead of disconnecting
+  public DelegatingSshSession( Session session, Runnable releaseAction ) {
+    this.session = session;
+    this.releaseAction = releaseAction;
   }
 
   public String downloadFile( String sourcePath ) {
-    StringBuilder commandResult = new StringBuilder( StringUtils.EMPTY );
-    Channel channel = null;
+    byte[] content = downloadFileAsByteArray( sourcePath );
+
+    return content == null ? StringUtils.EMPTY : new String( content );
+  }
+
+  //Reads the whole file into one array allocated from the remote file size
+  public byte[] downloadFileAsByteArray( String sourcePath ) {
+    ChannelSftp channel = null;
 
     try {
-      channel = session.openChannel( "sftp" );
-      channel.connect();
-
-      SftpATTRS sftpATTRS = ( (ChannelSftp) channel ).stat( sourcePath );
-      InputStream in = ( (ChannelSftp) channel ).get( sourcePath );
-      int size = sftpATTRS.getSize() > 1024 ? 256 : (int) sftpATTRS.getSize();
-      byte[] tmp = new byte[ size ];
-      int i;
-      while ( ( i = in.read( tmp, 0, size ) ) > 0 ) {
-        commandResult.append( new String( tmp, 0, i ) );
+      channel = openSftpChannel();
+      SftpATTRS sftpATTRS = channel.stat( sourcePath );
+      try ( SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, SshTimeouts.getDefault() );
+            InputStream in = channel.get( sourcePath ) ) {
+        return assertNotExpired( watchdog, sourcePath, readFully( in, sftpATTRS.getSize(), watchdog ) );
       }
     } catch ( JSchException | IOException | SftpException ex ) {
       ex.printStackTrace();
@@ -44,78 +62,89 @@ public class DelegatingSshSession implements Closeable {
       }
     }
 
-    return commandResult.toString();
+    return null;
   }
 
-  public byte[] downloadFileAsByteArray( String sourcePath ) {
-    byte[] commandResult = null;
-    Channel channel = null;
+  public long downloadFile( String sourcePath, OutputStream sink ) throws IOException {
+    ChannelSftp channel = null;
 
     try {
-      channel = session.openChannel( "sftp" );
-      channel.connect();
-
-      SftpATTRS sftpATTRS = ( (ChannelSftp) channel ).stat( sourcePath );
-      InputStream in = ( (ChannelSftp) channel ).get( sourcePath );
-      int size = sftpATTRS.getSize() > 1024 ? 256 : (int) sftpATTRS.getSize();
-      byte[] tmp = new byte[ size ];
-      int i;
-      while ( ( i = in.read( tmp, 0, size ) ) > 0 ) {
-        commandResult = ByteCopierUtil.addBytesToArray( commandResult, tmp, i );
+      channel = openSftpChannel();
+      try ( SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, SshTimeouts.getDefault() );
+            InputStream in = channel.get( sourcePath ) ) {
+        return assertNotExpired( watchdog, sourcePath, copy( in, sink, watchdog ) );
       }
-    } catch ( JSchException | IOException | SftpException ex ) {
-      ex.printStackTrace();
+    } catch ( JSchException | SftpException ex ) {
+      throw new IOException( "Can't download " + sourcePath, ex );
     } finally {
       if ( channel != null ) {
         channel.disconnect();
       }
     }
+  }
 
-    return commandResult;
+  public long downloadFile( String sourcePath, WritableByteChannel sink ) throws IOException {
+    return downloadFile( sourcePath, Channels.newOutputStream( sink ) );
+  }
+
+  //Downloaded next to the destination and moved over it, a failed download never leaves a truncated file
+  public long downloadFile( String sourcePath, Path destination ) throws IOException {
+    Path directory = destination.toAbsolutePath().getParent();
+    Files.createDirectories( directory );
+
+    Path temporaryFile = Files.createTempFile( directory, destination.getFileName().toString(), ".tmp" );
+    try {
+      long size;
+      try ( OutputStream out = Files.newOutputStream( temporaryFile ) ) {
+        size = downloadFile( sourcePath, out );
+      }
+      Files.move( temporaryFile, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+
+      return size;
+    } finally {
+      Files.deleteIfExists( temporaryFile );
+    }
+  }
+
+  //Written under a temporary name and renamed, so concurrent readers never see a partial file
+  public void uploadFile( byte[] content, String destinationPath ) throws IOException {
+    ChannelSftp channel = null;
+    String temporaryPath = destinationPath + "." + System.nanoTime() + ".tmp";
+
+    try {
+      channel = openSftpChannel();
+      createParentDirectories( channel, destinationPath );
+      try ( SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, SshTimeouts.getDefault() ) ) {
+        channel.put( new ByteArrayInputStream( content ), temporaryPath );
+        assertNotExpired( watchdog, destinationPath, content.length );
+      }
+      renameOrDiscard( channel, temporaryPath, destinationPath );
+    } catch ( JSchException | SftpException ex ) {
+      throw new IOException( "Can't upload " + destinationPath, ex );
+    } finally {
+      if ( channel != null ) {
+        channel.disconnect();
+      }
+    }
   }
 
   public SshExecResult executeCommand( String command ) {
-    SshExecResult.SshExecResultBuilder sshExecResultBuilder = SshExecResult.SshExecResultBuilder.get();
+    return executeCommand( command, SshTimeouts.getDefault() );
+  }
+
+  public SshExecResult executeCommand( String command, SshTimeouts sshTimeouts ) {
+    return executeCommandWithInput( command, null, sshTimeouts );
+  }
+
+  //Input is written to stdin of the command, it never appears in the remote process list
+  public SshExecResult executeCommandWithInput( String command, byte[] input, SshTimeouts sshTimeouts ) {
     Channel channel = null;
 
     try {
       channel = session.openChannel( "exec" );
       setPtyIfSudo( channel, command );
-      ( (ChannelExec) channel ).setCommand( command.trim() );
-
-      channel.setInputStream( null );
-      ( (ChannelExec) channel ).setErrStream( System.err );
-      InputStream in = channel.getInputStream();
-      InputStream err = ((ChannelExec) channel).getErrStream();
-      channel.connect();
-      byte[] tmp = new byte[ 10024 ];
-      while ( true ) {
-        while ( in.available() > 0 ) {
-          int i = in.read( tmp, 0, 5024 );
-          if ( i < 0 ) {
-            break;
-          }
-          sshExecResultBuilder.appendToOut( new String( tmp, 0, i ) );
-        }
-        while ( err.available() > 0 ) {
-          int i = err.read( tmp, 0, 5024 );
-          if ( i < 0 ) {
-            break;
-          }
-          sshExecResultBuilder.appendToErr( new String( tmp, 0, i ) );
-        }
-        if ( channel.isClosed() ) {
-          if ( in.available() > 0 || err.available() > 0 ) {
-            continue;
-          }
-          break;
-        }
-        try {
-          Thread.sleep( 100 );
-        } catch ( Exception ex ) {
-          System.out.println( ex.getMessage() );
-        }
-      }
+
+      return SshExecChannelReader.execute( (ChannelExec) channel, command, input, sshTimeouts );
     } catch ( JSchException | IOException ex ) {
       ex.printStackTrace();
     } finally {
@@ -124,15 +153,65 @@ public class DelegatingSshSession implements Closeable {
       }
     }
 
-    return sshExecResultBuilder.build();
+    return SshExecResult.SshExecResultBuilder.get().build();
+  }
+
+  //Completes when the channel is closed, no thread waits for the remote command. Failed execs complete with IOException
+  public CompletableFuture<SshExecResult> executeCommandAsync( String command, SshTimeouts sshTimeouts ) {
+    Channel channel = null;
+
+    try {
+      channel = session.openChannel( "exec" );
+      setPtyIfSudo( channel, command );
+      Channel execChannel = channel;
+
+      return SshExecChannelReader.executeAsync( (ChannelExec) channel, command, sshTimeouts )
+              .whenComplete( ( sshExecResult, throwable ) -> execChannel.disconnect() );
+    } catch ( JSchException | RuntimeException ex ) {
+      if ( channel != null ) {
+        channel.disconnect();
+      }
+      CompletableFuture<SshExecResult> failed = new CompletableFuture<>();
+      failed.completeExceptionally( new IOException( "Can't execute command", ex ) );
+
+      return failed;
+    }
+  }
+
+  public SshExecResult executeCommand( String command, ISshLineListener lineListener ) throws IOException {
+    return executeCommand( command, lineListener, SshTimeouts.getDefault() );
+  }
+
+  public SshExecResult executeCommand( String command, ISshLineListener lineListener, SshTimeouts sshTimeouts ) throws IOException {
+    Channel channel = null;
+
+    try {
+      channel = session.openChannel( "exec" );
+      setPtyIfSudo( channel, command );
+
+      return SshExecChannelReader.executeStreaming( (ChannelExec) channel, command, lineListener, sshTimeouts );
+    } catch ( JSchException ex ) {
+      throw new IOException( ex );
+    } finally {
+      if ( channel != null ) {
+        channel.disconnect();
+      }
+    }
   }
 
   @Override
   public void close() throws IOException {
-    session.disconnect();
+    if ( releaseAction != null ) {
+      //Pooled session and host permit must be returned only once
+      Runnable release = releaseAction;
+      releaseAction = null;
+      release.run();
+    } else if ( session.isConnected() ) {
+      session.disconnect();
+    }
   }
 
-  private Session createSession( String user, String host, int port, String password, String identityPath )
+  public static Session openSession( String user, String host, int port, String password, String identityPath )
     throws IOException {
     try {
       JSch jsch = new JSch();
@@ -149,7 +228,7 @@ public class DelegatingSshSession implements Closeable {
         session.setPassword( password );
       }
 
-      session.connect();
+      session.connect( SshTimeouts.getDefault().getConnectTimeout() );
 
       return session;
     } catch ( JSchException ex ) {
@@ -157,6 +236,92 @@ public class DelegatingSshSession implements Closeable {
     }
   }
 
+  private ChannelSftp openSftpChannel() throws JSchException {
+    ChannelSftp channel = (ChannelSftp) session.openChannel( "sftp" );
+    channel.connect( SshTimeouts.getDefault().getConnectTimeout() );
+
+    return channel;
+  }
+
+  private long copy( InputStream in, OutputStream out, SshChannelWatchdog watchdog ) throws IOException {
+    byte[] buffer = TRANSFER_BUFFER.get();
+    long total = 0;
+    int read;
+    while ( ( read = in.read( buffer ) ) != -1 ) {
+      watchdog.onActivity();
+      out.write( buffer, 0, read );
+      total += read;
+    }
+    out.flush();
+
+    return total;
+  }
+
+  private void createParentDirectories( ChannelSftp channel, String path ) throws SftpException {
+    String[] directories = path.split( "/" );
+    StringBuilder directory = new StringBuilder( path.startsWith( "/" ) ? "/" : StringUtils.EMPTY );
+    for ( int i = 0; i < directories.length - 1; i++ ) {
+      if ( directories[ i ].isEmpty() ) {
+        continue;
+      }
+      directory.append( directories[ i ] );
+      try {
+        channel.stat( directory.toString() );
+      } catch ( SftpException ex ) {
+        channel.mkdir( directory.toString() );
+      }
+      directory.append( "/" );
+    }
+  }
+
+  //Another uploader may have renamed the same content in first
+  private void renameOrDiscard( ChannelSftp channel, String temporaryPath, String destinationPath ) throws SftpException {
+    try {
+      channel.rename( temporaryPath, destinationPath );
+    } catch ( SftpException ex ) {
+      channel.stat( destinationPath );
+      channel.rm( temporaryPath );
+    }
+  }
+
+  //Transfer cut by the watchdog ends like a short file, so it is reported here
+  private <T> T assertNotExpired( SshChannelWatchdog watchdog, String sourcePath, T transferred ) throws IOException {
+    if ( watchdog.isExpired() ) {
+      throw new InterruptedIOException( "Download of " + sourcePath + " timed out" );
+    }
+
+    return transferred;
+  }
+
+  private byte[] readFully( InputStream in, long expectedSize, SshChannelWatchdog watchdog ) throws IOException {
+    if ( expectedSize < 0 || expectedSize > MAX_IN_MEMORY_SIZE ) {
+      throw new IOException( "File size " + expectedSize + " can't be downloaded into memory, use a streaming sink" );
+    }
+
+    byte[] content = new byte[ (int) expectedSize ];
+    int offset = 0;
+    int read;
+    while ( offset < content.length && ( read = in.read( content, offset, content.length - offset ) ) != -1 ) {
+      watchdog.onActivity();
+      offset += read;
+    }
+
+    //File changed between stat and read
+    if ( offset < content.length ) {
+      return Arrays.copyOf( content, offset );
+    }
+    ByteArrayOutputStream tail = new ByteArrayOutputStream();
+    if ( copy( in, tail, watchdog ) > 0 ) {
+      ByteArrayOutputStream whole = new ByteArrayOutputStream( content.length + tail.size() );
+      whole.write( content );
+      tail.writeTo( whole );
+
+      return whole.toByteArray();
+    }
+
+    return content;
+  }
+
   private void setPtyIfSudo( Channel channel, String command ) {
     if (CheckingParamsUtil.isParamsNotNullOrEmpty( command ) && command.contains( "sudo" )) {
       ( (ChannelExec) channel ).setPty( true );
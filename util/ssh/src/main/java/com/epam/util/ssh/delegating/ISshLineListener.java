@@ -0,0 +1,7 @@
+package com.epam.util.ssh.delegating;
+
+@FunctionalInterface
+public interface ISshLineListener {
+    //Return false to stop reading, the remote command is closed then
+    boolean onLine( String line, boolean errorStream );
+}
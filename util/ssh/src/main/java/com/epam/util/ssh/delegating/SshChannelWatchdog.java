@@ -0,0 +1,102 @@
+package com.epam.util.ssh.delegating;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelExec;
+import org.apache.log4j.Logger;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kills a channel that ran out of its execution deadline or stayed silent longer than the read timeout.
+ * The remote process gets KILL and the channel is closed, so blocked readers see end of stream.
+ */
+class SshChannelWatchdog implements AutoCloseable {
+    private static final long CHECK_PERIOD_MILLIS = 500;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor( runnable -> {
+        Thread thread = new Thread( runnable, "ssh-channel-watchdog" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
+    private final static Logger logger = Logger.getLogger( SshChannelWatchdog.class );
+    private final Channel channel;
+    private final SshTimeouts sshTimeouts;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long lastActivity = startedAt;
+    private volatile boolean expired;
+    private ScheduledFuture<?> check;
+
+    private SshChannelWatchdog( Channel channel, SshTimeouts sshTimeouts ) {
+        this.channel = channel;
+        this.sshTimeouts = sshTimeouts;
+    }
+
+    static SshChannelWatchdog watch( Channel channel, SshTimeouts sshTimeouts ) {
+        SshChannelWatchdog watchdog = new SshChannelWatchdog( channel, sshTimeouts );
+        if ( sshTimeouts.getReadTimeoutMillis() > 0 || sshTimeouts.getExecutionTimeoutMillis() > 0 ) {
+            watchdog.check = SCHEDULER.scheduleWithFixedDelay( watchdog::checkDeadlines, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS,
+                    TimeUnit.MILLISECONDS );
+        }
+
+        return watchdog;
+    }
+
+    void onActivity() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    boolean isExpired() {
+        return expired;
+    }
+
+    //Counts writes made by the JSch session thread as activity
+    OutputStream trackActivity( OutputStream outputStream ) {
+        return new FilterOutputStream( outputStream ) {
+            @Override
+            public void write( byte[] bytes, int offset, int length ) throws IOException {
+                onActivity();
+                out.write( bytes, offset, length );
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        if ( check != null ) {
+            check.cancel( false );
+        }
+    }
+
+    private void checkDeadlines() {
+        long now = System.currentTimeMillis();
+        if ( isExceeded( now - startedAt, sshTimeouts.getExecutionTimeoutMillis() )
+                || isExceeded( now - lastActivity, sshTimeouts.getReadTimeoutMillis() ) ) {
+            expired = true;
+            logger.warn( "Ssh channel timed out after " + ( now - startedAt ) + " ms (" + sshTimeouts + "), killing it" );
+            kill();
+            close();
+        }
+    }
+
+    private void kill() {
+        if ( channel instanceof ChannelExec ) {
+            try {
+                channel.sendSignal( "KILL" );
+            } catch ( Exception ex ) {
+                //Most sshd ignore signals, closing the channel breaks the remote pipes
+            }
+        }
+        channel.disconnect();
+    }
+
+    private boolean isExceeded( long elapsedMillis, long timeoutMillis ) {
+        return timeoutMillis > 0 && elapsedMillis > timeoutMillis;
+    }
+}
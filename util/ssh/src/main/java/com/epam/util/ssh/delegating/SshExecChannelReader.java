@@ -0,0 +1,227 @@
+package com.epam.util.ssh.delegating;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSchException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a command on an exec channel and blocks on the stdout stream until EOF.
+ * Stderr is written by the JSch session thread straight into a buffer, so both streams are drained concurrently
+ * without polling. The streaming mode reads stderr on a separate thread instead and hands out lines.
+ * The async mode lets the session thread write both streams and completes when JSch closes the stderr buffer
+ * on channel close, no thread waits for the command. All modes are guarded by a watchdog, a command killed
+ * on timeout returns a timed out result.
+ */
+class SshExecChannelReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final long CLOSE_WAIT_MILLIS = 2000;
+
+    private static final ExecutorService ERR_READER = Executors.newCachedThreadPool( runnable -> {
+        Thread thread = new Thread( runnable, "ssh-stderr-reader" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
+    private SshExecChannelReader() {}
+
+    static SshExecResult execute( ChannelExec channel, String command, SshTimeouts sshTimeouts ) throws JSchException, IOException {
+        return execute( channel, command, null, sshTimeouts );
+    }
+
+    //Input is sent to stdin of the command followed by EOF, so secrets stay out of the remote command line
+    static SshExecResult execute( ChannelExec channel, String command, byte[] input, SshTimeouts sshTimeouts ) throws JSchException, IOException {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream errStream = new ByteArrayOutputStream();
+        CountDownLatch channelClosed = new CountDownLatch( 1 );
+
+        channel.setCommand( command.trim() );
+        channel.setInputStream( input != null ? new ByteArrayInputStream( input ) : null );
+        try ( SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, sshTimeouts ) ) {
+            channel.setErrStream( new ClosingSignalOutputStream( watchdog.trackActivity( errStream ), channelClosed::countDown ), false );
+            InputStream in = channel.getInputStream();
+            channel.connect( sshTimeouts.getConnectTimeout() );
+
+            byte[] buffer = new byte[ BUFFER_SIZE ];
+            int read;
+            try {
+                while ( ( read = in.read( buffer ) ) != -1 ) {
+                    watchdog.onActivity();
+                    outStream.write( buffer, 0, read );
+                }
+            } catch ( IOException ex ) {
+                //Pipe is closed under the reader when the watchdog kills the channel
+                if ( !watchdog.isExpired() ) {
+                    throw ex;
+                }
+            }
+
+            if ( watchdog.isExpired() ) {
+                return createTimedOutResult( outStream.toString(), errStream.toString() );
+            }
+        }
+        awaitChannelClose( channelClosed );
+
+        return SshExecResult.SshExecResultBuilder.get()
+                .appendToOut( outStream.toString() )
+                .appendToErr( errStream.toString() )
+                .setExitCode( channel.getExitStatus() ).build();
+    }
+
+    //Lines are passed to the listener as they arrive and are not kept, -1 exit code if the listener stopped the command
+    static SshExecResult executeStreaming( ChannelExec channel, String command, ISshLineListener lineListener, SshTimeouts sshTimeouts )
+            throws JSchException, IOException {
+        AtomicBoolean stopped = new AtomicBoolean( false );
+        Object listenerLock = new Object();
+
+        channel.setCommand( command.trim() );
+        channel.setInputStream( null );
+        InputStream in = channel.getInputStream();
+        InputStream err = channel.getExtInputStream();
+        try ( SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, sshTimeouts ) ) {
+            channel.connect( sshTimeouts.getConnectTimeout() );
+
+            ISshLineListener trackingListener = ( line, errorStream ) -> {
+                watchdog.onActivity();
+
+                return lineListener.onLine( line, errorStream );
+            };
+            Future<?> errReading = ERR_READER.submit( () -> readLines( err, true, channel, trackingListener, listenerLock, stopped, watchdog ) );
+            readLines( in, false, channel, trackingListener, listenerLock, stopped, watchdog );
+            try {
+                errReading.get();
+            } catch ( InterruptedException ex ) {
+                Thread.currentThread().interrupt();
+            } catch ( ExecutionException ex ) {
+                throw new IOException( ex.getCause() );
+            }
+
+            if ( watchdog.isExpired() ) {
+                return createTimedOutResult( null, null );
+            }
+        }
+
+        //Stderr pipe ends only when the channel is closed, the exit status is already set by then
+        if ( stopped.get() ) {
+            return SshExecResult.SshExecResultBuilder.get().build();
+        }
+
+        return SshExecResult.SshExecResultBuilder.get().setExitCode( channel.getExitStatus() ).build();
+    }
+
+    //Completes on the JSch session thread or on the watchdog thread, dependent stages should not block
+    static CompletableFuture<SshExecResult> executeAsync( ChannelExec channel, String command, SshTimeouts sshTimeouts ) throws JSchException {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream errStream = new ByteArrayOutputStream();
+        CompletableFuture<SshExecResult> result = new CompletableFuture<>();
+
+        channel.setCommand( command.trim() );
+        channel.setInputStream( null );
+        SshChannelWatchdog watchdog = SshChannelWatchdog.watch( channel, sshTimeouts );
+        channel.setOutputStream( watchdog.trackActivity( outStream ), true );
+        //Exit status request arrives before channel close, so it is set when the stderr buffer is closed
+        channel.setErrStream( new ClosingSignalOutputStream( watchdog.trackActivity( errStream ), () -> {
+            watchdog.close();
+            result.complete( watchdog.isExpired() ? createTimedOutResult( outStream.toString(), errStream.toString() )
+                    : SshExecResult.SshExecResultBuilder.get()
+                    .appendToOut( outStream.toString() )
+                    .appendToErr( errStream.toString() )
+                    .setExitCode( channel.getExitStatus() ).build() );
+        } ), false );
+        try {
+            channel.connect( sshTimeouts.getConnectTimeout() );
+        } catch ( JSchException ex ) {
+            watchdog.close();
+            throw ex;
+        }
+
+        return result;
+    }
+
+    private static void readLines( InputStream stream, boolean errorStream, ChannelExec channel, ISshLineListener lineListener,
+                                   Object listenerLock, AtomicBoolean stopped, SshChannelWatchdog watchdog ) {
+        try ( BufferedReader reader = new BufferedReader( new InputStreamReader( stream ) ) ) {
+            String line;
+            while ( !stopped.get() && ( line = reader.readLine() ) != null ) {
+                boolean proceed;
+                synchronized ( listenerLock ) {
+                    proceed = stopped.get() || lineListener.onLine( line, errorStream );
+                }
+                if ( !proceed && stopped.compareAndSet( false, true ) ) {
+                    stopRemoteCommand( channel );
+                }
+            }
+        } catch ( IOException ex ) {
+            //Stream is closed when the other reader or the watchdog stops the command
+            if ( !stopped.get() && !watchdog.isExpired() ) {
+                throw new UncheckedIOException( ex );
+            }
+        }
+    }
+
+    private static void stopRemoteCommand( ChannelExec channel ) {
+        try {
+            channel.sendSignal( "KILL" );
+        } catch ( Exception ex ) {
+            //Most sshd ignore signals, closing the channel is enough to break the remote pipes
+        }
+        channel.disconnect();
+    }
+
+    private static SshExecResult createTimedOutResult( String out, String err ) {
+        return SshExecResult.SshExecResultBuilder.get().appendToOut( out ).appendToErr( err ).setTimedOut( true ).build();
+    }
+
+    //Exit status and close may arrive right after stdout EOF
+    private static void awaitChannelClose( CountDownLatch channelClosed ) {
+        try {
+            channelClosed.await( CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS );
+        } catch ( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //JSch closes the stderr stream of a channel only when the channel itself is closed
+    private static class ClosingSignalOutputStream extends FilterOutputStream {
+        private final AtomicBoolean closed = new AtomicBoolean( false );
+        private final Runnable onClose;
+
+        private ClosingSignalOutputStream( OutputStream outputStream, Runnable onClose ) {
+            super( outputStream );
+            this.onClose = onClose;
+        }
+
+        @Override
+        public void write( byte[] bytes, int offset, int length ) throws IOException {
+            out.write( bytes, offset, length );
+        }
+
+        @Override
+        public void close() throws IOException {
+            if ( closed.compareAndSet( false, true ) ) {
+                try {
+                    super.close();
+                } finally {
+                    onClose.run();
+                }
+            }
+        }
+    }
+}
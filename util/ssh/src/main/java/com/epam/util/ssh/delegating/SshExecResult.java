@@ -8,6 +8,8 @@ import java.util.function.Consumer;
 public class SshExecResult {
     private StringBuilder outMessage;
     private StringBuilder errMessage;
+    private int exitCode = -1;
+    private boolean timedOut;
 
     private SshExecResult() { }
 
@@ -19,6 +21,16 @@ public class SshExecResult {
         return errMessage.toString();
     }
 
+    //-1 if the remote side did not report an exit status
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    //Command was killed on connect, read or execution timeout, output holds what arrived before
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
     public static class SshExecResultBuilder {
         private SshExecResult sshExecResult;
 
@@ -69,7 +81,19 @@ public class SshExecResult {
         }
 
         public SshExecResultBuilder setErrMessage(String errMessage ) {
-            return verifyAndAddParam( errMessage, ( param ) -> clearOut().appendToOut( errMessage ));
+            return verifyAndAddParam( errMessage, ( param ) -> clearErr().appendToErr( errMessage ));
+        }
+
+        public SshExecResultBuilder setExitCode( int exitCode ) {
+            this.sshExecResult.exitCode = exitCode;
+
+            return this;
+        }
+
+        public SshExecResultBuilder setTimedOut( boolean timedOut ) {
+            this.sshExecResult.timedOut = timedOut;
+
+            return this;
         }
 
         public SshExecResult build() {
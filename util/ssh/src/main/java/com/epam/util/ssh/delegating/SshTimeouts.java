@@ -0,0 +1,56 @@
+package com.epam.util.ssh.delegating;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadlines of remote ssh calls. Connect applies to session and channel opening, read to the longest silence
+ * on the channel streams and execution to the whole command or transfer. Zero disables a timeout.
+ */
+public class SshTimeouts {
+    private static volatile SshTimeouts defaultTimeouts = new SshTimeouts( TimeUnit.SECONDS.toMillis( 30 ),
+            TimeUnit.MINUTES.toMillis( 10 ), TimeUnit.MINUTES.toMillis( 30 ) );
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long executionTimeoutMillis;
+
+    public SshTimeouts( long connectTimeoutMillis, long readTimeoutMillis, long executionTimeoutMillis ) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.executionTimeoutMillis = executionTimeoutMillis;
+    }
+
+    public static SshTimeouts getDefault() {
+        return defaultTimeouts;
+    }
+
+    public static void setDefault( SshTimeouts sshTimeouts ) {
+        defaultTimeouts = sshTimeouts;
+    }
+
+    public SshTimeouts withExecutionTimeout( long executionTimeout, TimeUnit timeUnit ) {
+        return new SshTimeouts( connectTimeoutMillis, readTimeoutMillis, timeUnit.toMillis( executionTimeout ) );
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public long getExecutionTimeoutMillis() {
+        return executionTimeoutMillis;
+    }
+
+    //JSch takes int timeouts, 0 means no timeout
+    int getConnectTimeout() {
+        return (int) Math.min( connectTimeoutMillis, Integer.MAX_VALUE );
+    }
+
+    @Override
+    public String toString() {
+        return "connect=" + connectTimeoutMillis + " ms, read=" + readTimeoutMillis + " ms, execution=" + executionTimeoutMillis + " ms";
+    }
+}
@@ -1,8 +1,11 @@
 package com.epam.util.ssh.executor;
 
 import com.epam.util.ssh.delegating.DelegatingSshSession;
+import com.epam.util.ssh.pool.SshSessionKey;
+import com.epam.util.ssh.pool.SshSessionPool;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 
 public abstract class SshAbstractExecutor {
     private String username;
@@ -17,6 +20,17 @@ public abstract class SshAbstractExecutor {
 
     protected DelegatingSshSession createDelegationSshSession(String host, int port)
             throws IOException {
-        return new DelegatingSshSession( username, host, port, password, identityPath );
+        return SshSessionPool.get().borrowSession( createSessionKey( host, port ) );
+    }
+
+    //Waiting for a host permit was interrupted or timed out, the pooled session itself is fine
+    protected void invalidateSshSession(String host, int port, IOException cause) {
+        if ( !( cause instanceof InterruptedIOException ) ) {
+            SshSessionPool.get().invalidate( createSessionKey( host, port ) );
+        }
+    }
+
+    private SshSessionKey createSessionKey(String host, int port) {
+        return new SshSessionKey( username, host, port, password, identityPath );
     }
 }
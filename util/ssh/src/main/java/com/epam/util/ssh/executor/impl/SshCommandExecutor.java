@@ -1,13 +1,32 @@
 package com.epam.util.ssh.executor.impl;
 
 import com.epam.util.common.CommonUtilException;
+import com.epam.util.ssh.batch.SshCommandBatch;
 import com.epam.util.ssh.delegating.DelegatingSshSession;
+import com.epam.util.ssh.delegating.ISshLineListener;
 import com.epam.util.ssh.delegating.SshExecResult;
+import com.epam.util.ssh.delegating.SshTimeouts;
 import com.epam.util.ssh.executor.SshAbstractExecutor;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SshCommandExecutor extends SshAbstractExecutor {
+    //Only waits for host permits, handshakes and channel opening, remote commands don't hold these threads
+    private static final int ASYNC_SETUP_THREADS = 8;
+    private static final ExecutorService ASYNC_EXECUTOR = Executors.newFixedThreadPool( ASYNC_SETUP_THREADS, runnable -> {
+        Thread thread = new Thread( runnable, "ssh-exec-async" );
+        thread.setDaemon( true );
+
+        return thread;
+    } );
+
     public SshCommandExecutor(String username, String password, String identityPath) {
         super(username, password, identityPath);
     }
@@ -17,6 +36,7 @@ public class SshCommandExecutor extends SshAbstractExecutor {
         try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
             return sshSession.executeCommand(command);
         } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
             throw new CommonUtilException(ex);
         }
     }
@@ -25,4 +45,80 @@ public class SshCommandExecutor extends SshAbstractExecutor {
             CommonUtilException {
         return executeCommand( host, 22, command );
     }
+
+    public SshExecResult executeCommandWithInput( String host, int port, String command, byte[] input ) throws
+            CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            return sshSession.executeCommandWithInput( command, input, SshTimeouts.getDefault() );
+        } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public SshExecResult executeCommandWithInput( String host, String command, byte[] input ) throws
+            CommonUtilException {
+        return executeCommandWithInput( host, 22, command, input );
+    }
+
+    public SshExecResult executeCommand( String host, int port, String command, ISshLineListener lineListener ) throws
+            CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            return sshSession.executeCommand( command, lineListener );
+        } catch (IOException ex) {
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public SshExecResult executeCommand( String host, String command, ISshLineListener lineListener ) throws
+            CommonUtilException {
+        return executeCommand( host, 22, command, lineListener );
+    }
+
+    //Runs all commands on one exec channel and returns one result per command, in the same order
+    public List<SshExecResult> executeBatch( String host, int port, List<String> commands ) throws CommonUtilException {
+        if ( commands.isEmpty() ) {
+            return Collections.emptyList();
+        }
+
+        SshCommandBatch sshCommandBatch = SshCommandBatch.of( commands );
+
+        return sshCommandBatch.splitResult( executeCommand( host, port, sshCommandBatch.toScript() ) );
+    }
+
+    public List<SshExecResult> executeBatch( String host, List<String> commands ) throws CommonUtilException {
+        return executeBatch( host, 22, commands );
+    }
+
+    //Session is borrowed on the executor, the command completes on channel close and the session is returned then
+    public CompletableFuture<SshExecResult> executeCommandAsync( String host, int port, String command, Executor executor ) {
+        return CompletableFuture.supplyAsync( () -> {
+            try {
+                return createDelegationSshSession( host, port );
+            } catch ( IOException ex ) {
+                invalidateSshSession( host, port, ex );
+                throw new CompletionException( new CommonUtilException( ex ) );
+            }
+        }, executor ).thenCompose( sshSession -> sshSession.executeCommandAsync( command, SshTimeouts.getDefault() )
+                .handle( ( sshExecResult, throwable ) -> {
+                    closeSession( sshSession );
+                    if ( throwable != null ) {
+                        throw new CompletionException( new CommonUtilException( throwable instanceof CompletionException ? throwable.getCause() : throwable ) );
+                    }
+
+                    return sshExecResult;
+                } ) );
+    }
+
+    public CompletableFuture<SshExecResult> executeCommandAsync( String host, String command ) {
+        return executeCommandAsync( host, 22, command, ASYNC_EXECUTOR );
+    }
+
+    private void closeSession( DelegatingSshSession sshSession ) {
+        try {
+            sshSession.close();
+        } catch ( IOException ex ) {
+            //Pooled session only returns its lease and permit
+        }
+    }
 }
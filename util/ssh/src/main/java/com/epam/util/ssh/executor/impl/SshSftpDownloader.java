@@ -6,6 +6,9 @@ import com.epam.util.ssh.delegating.DelegatingSshSession;
 import com.epam.util.ssh.executor.SshAbstractExecutor;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
 
 public class SshSftpDownloader extends SshAbstractExecutor {
     public SshSftpDownloader(String username, String password, String identityPath) {
@@ -18,6 +21,7 @@ public class SshSftpDownloader extends SshAbstractExecutor {
         try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
             return sshSession.downloadFile(source);
         } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
             throw new CommonUtilException(ex);
         }
     }
@@ -36,6 +40,38 @@ public class SshSftpDownloader extends SshAbstractExecutor {
         try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
             return new DownloadedFileWrapper(sshSession.downloadFileAsByteArray(source));
         } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public long downloadViaSftp( String host, int port, String source, OutputStream sink ) throws CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            return sshSession.downloadFile( source, sink );
+        } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public long downloadViaSftp( String host, int port, String source, WritableByteChannel sink ) throws CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            return sshSession.downloadFile( source, sink );
+        } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public long downloadViaSftpToFile( String host, String source, String destination ) throws CommonUtilException {
+        return downloadViaSftpToFile( host, 22, source, destination );
+    }
+
+    public long downloadViaSftpToFile( String host, int port, String source, String destination ) throws CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            return sshSession.downloadFile( source, Paths.get( destination ) );
+        } catch (IOException ex) {
+            invalidateSshSession( host, port, ex );
             throw new CommonUtilException(ex);
         }
     }
@@ -0,0 +1,26 @@
+package com.epam.util.ssh.executor.impl;
+
+import com.epam.util.common.CommonUtilException;
+import com.epam.util.ssh.delegating.DelegatingSshSession;
+import com.epam.util.ssh.executor.SshAbstractExecutor;
+
+import java.io.IOException;
+
+public class SshSftpUploader extends SshAbstractExecutor {
+    public SshSftpUploader(String username, String password, String identityPath) {
+        super(username, password, identityPath);
+    }
+
+    //Relative destinations are resolved against the user home directory
+    public void uploadViaSftp( String host, int port, byte[] content, String destination ) throws CommonUtilException {
+        try (DelegatingSshSession sshSession = createDelegationSshSession( host, port )) {
+            sshSession.uploadFile( content, destination );
+        } catch (IOException ex) {
+            throw new CommonUtilException(ex);
+        }
+    }
+
+    public void uploadViaSftp( String host, byte[] content, String destination ) throws CommonUtilException {
+        uploadViaSftp( host, 22, content, destination );
+    }
+}
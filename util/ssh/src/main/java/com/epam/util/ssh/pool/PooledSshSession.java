@@ -0,0 +1,71 @@
+package com.epam.util.ssh.pool;
+
+import com.jcraft.jsch.Session;
+
+class PooledSshSession {
+    private final SshSessionKey key;
+    private Session session;
+    private int leases;
+    private long lastUsed;
+    private boolean removed;
+    private boolean broken;
+
+    PooledSshSession( SshSessionKey key ) {
+        this.key = key;
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    SshSessionKey getKey() {
+        return key;
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    void setSession( Session session ) {
+        this.session = session;
+    }
+
+    boolean hasSession() {
+        return session != null;
+    }
+
+    void lease() {
+        leases++;
+        touch();
+    }
+
+    void release() {
+        leases--;
+        touch();
+    }
+
+    boolean isLeased() {
+        return leases > 0;
+    }
+
+    long getIdleMillis() {
+        return System.currentTimeMillis() - lastUsed;
+    }
+
+    boolean isRemoved() {
+        return removed;
+    }
+
+    void markRemoved() {
+        this.removed = true;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    void markBroken() {
+        this.broken = true;
+    }
+
+    private void touch() {
+        this.lastUsed = System.currentTimeMillis();
+    }
+}
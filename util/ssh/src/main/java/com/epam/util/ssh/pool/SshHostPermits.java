@@ -0,0 +1,56 @@
+package com.epam.util.ssh.pool;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits parallel ssh channels per host, so sshd MaxSessions/MaxStartups are not exceeded when several clusters
+ * and actions hit the same node. Waiting callers are served in arrival order.
+ */
+class SshHostPermits {
+    //sshd MaxSessions default
+    private static final int DEFAULT_PERMITS_PER_HOST = 10;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, Integer> hostLimits = new ConcurrentHashMap<>();
+    private final SshSessionPoolMetrics metrics;
+    private volatile int defaultPermitsPerHost = DEFAULT_PERMITS_PER_HOST;
+
+    SshHostPermits( SshSessionPoolMetrics metrics ) {
+        this.metrics = metrics;
+    }
+
+    //Returns the action releasing the acquired permit
+    Runnable acquire( String host ) throws InterruptedIOException {
+        Semaphore permits = hostPermits.computeIfAbsent( host, key -> new Semaphore( getLimit( key ), true ) );
+        long start = System.nanoTime();
+        metrics.onPermitQueued();
+        try {
+            permits.acquire();
+        } catch ( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for ssh permit on " + host );
+        } finally {
+            metrics.onPermitDequeued( System.nanoTime() - start );
+        }
+
+        return permits::release;
+    }
+
+    void setDefaultLimit( int permitsPerHost ) {
+        this.defaultPermitsPerHost = permitsPerHost;
+        //Permits in use are released to the old semaphores
+        hostPermits.keySet().removeIf( host -> !hostLimits.containsKey( host ) );
+    }
+
+    void setLimit( String host, int permits ) {
+        hostLimits.put( host, permits );
+        hostPermits.remove( host );
+    }
+
+    private int getLimit( String host ) {
+        return hostLimits.getOrDefault( host, defaultPermitsPerHost );
+    }
+}
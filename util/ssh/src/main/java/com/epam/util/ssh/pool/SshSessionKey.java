@@ -0,0 +1,65 @@
+package com.epam.util.ssh.pool;
+
+import java.util.Objects;
+
+public class SshSessionKey {
+    private final String username;
+    private final String host;
+    private final int port;
+    private final String password;
+    private final String identityPath;
+
+    public SshSessionKey( String username, String host, int port, String password, String identityPath ) {
+        this.username = username;
+        this.host = host;
+        this.port = port;
+        this.password = password;
+        this.identityPath = identityPath;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getIdentityPath() {
+        return identityPath;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() ) {
+            return false;
+        }
+        SshSessionKey that = (SshSessionKey) o;
+        return port == that.port &&
+                Objects.equals( username, that.username ) &&
+                Objects.equals( host, that.host ) &&
+                Objects.equals( password, that.password ) &&
+                Objects.equals( identityPath, that.identityPath );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash( username, host, port, password, identityPath );
+    }
+
+    @Override
+    public String toString() {
+        return username + "@" + host + ":" + port;
+    }
+}
@@ -0,0 +1,206 @@
+package com.epam.util.ssh.pool;
+
+import com.epam.util.ssh.delegating.DelegatingSshSession;
+import com.jcraft.jsch.Session;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one live JSch session per (user, host, port, credentials) and hands out channels on it.
+ * Sessions idle for longer than the idle timeout are disconnected by a background evictor.
+ */
+public class SshSessionPool {
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 5 );
+    private static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis( 10 );
+    private static final long EVICTION_PERIOD_SECONDS = 30;
+    private static final SshSessionPool INSTANCE = new SshSessionPool();
+
+    private final static Logger logger = Logger.getLogger( SshSessionPool.class );
+    private final Map<SshSessionKey, PooledSshSession> sessions = new ConcurrentHashMap<>();
+    private final SshSessionPoolMetrics metrics = new SshSessionPoolMetrics();
+    private final SshHostPermits hostPermits = new SshHostPermits( metrics );
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private volatile long validationIntervalMillis = DEFAULT_VALIDATION_INTERVAL_MILLIS;
+
+    private SshSessionPool() {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+            Thread thread = new Thread( runnable, "ssh-session-pool-evictor" );
+            thread.setDaemon( true );
+
+            return thread;
+        } );
+        evictor.scheduleWithFixedDelay( this::evictIdleSessions, EVICTION_PERIOD_SECONDS, EVICTION_PERIOD_SECONDS, TimeUnit.SECONDS );
+    }
+
+    public static SshSessionPool get() {
+        return INSTANCE;
+    }
+
+    //Blocks while the host has no free permits, the permit is returned when the borrowed session is closed
+    public DelegatingSshSession borrowSession( SshSessionKey key ) throws IOException {
+        Runnable releasePermit = hostPermits.acquire( key.getHost() );
+        try {
+            return borrowSession( key, releasePermit );
+        } catch ( IOException | RuntimeException ex ) {
+            releasePermit.run();
+            throw ex;
+        }
+    }
+
+    private DelegatingSshSession borrowSession( SshSessionKey key, Runnable releasePermit ) throws IOException {
+        while ( true ) {
+            PooledSshSession pooledSession = sessions.computeIfAbsent( key, PooledSshSession::new );
+            synchronized ( pooledSession ) {
+                //Evicted between lookup and lock, take a fresh entry
+                if ( pooledSession.isRemoved() ) {
+                    continue;
+                }
+
+                boolean reused = ensureConnected( pooledSession );
+                pooledSession.lease();
+                metrics.onBorrow( reused );
+
+                return new DelegatingSshSession( pooledSession.getSession(), () -> {
+                    releaseSession( pooledSession );
+                    releasePermit.run();
+                } );
+            }
+        }
+    }
+
+    //A leased session is only taken out of the pool, it is disconnected when the last lease is returned
+    public void invalidate( SshSessionKey key ) {
+        PooledSshSession pooledSession = sessions.get( key );
+        if ( pooledSession != null ) {
+            synchronized ( pooledSession ) {
+                if ( pooledSession.isLeased() ) {
+                    pooledSession.markBroken();
+                    pooledSession.markRemoved();
+                    sessions.remove( pooledSession.getKey(), pooledSession );
+                } else {
+                    disconnect( pooledSession, false );
+                    removeIfUnused( pooledSession );
+                }
+            }
+        }
+    }
+
+    public void closeAll() {
+        sessions.values().forEach( pooledSession -> {
+            synchronized ( pooledSession ) {
+                disconnect( pooledSession, false );
+                pooledSession.markRemoved();
+                sessions.remove( pooledSession.getKey(), pooledSession );
+            }
+        } );
+    }
+
+    public SshSessionPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    //sshd MaxSessions/MaxStartups of the target hosts should not be exceeded
+    public void setHostPermits( int permitsPerHost ) {
+        hostPermits.setDefaultLimit( permitsPerHost );
+    }
+
+    public void setHostPermits( String host, int permits ) {
+        hostPermits.setLimit( host, permits );
+    }
+
+    public void setIdleTimeout( long timeout, TimeUnit timeUnit ) {
+        this.idleTimeoutMillis = timeUnit.toMillis( timeout );
+    }
+
+    public void setValidationInterval( long interval, TimeUnit timeUnit ) {
+        this.validationIntervalMillis = timeUnit.toMillis( interval );
+    }
+
+    private boolean ensureConnected( PooledSshSession pooledSession ) throws IOException {
+        if ( pooledSession.hasSession() && isHealthy( pooledSession ) ) {
+            return true;
+        }
+
+        disconnect( pooledSession, false );
+        long start = System.nanoTime();
+        try {
+            SshSessionKey key = pooledSession.getKey();
+            pooledSession.setSession( DelegatingSshSession.openSession( key.getUsername(), key.getHost(), key.getPort(),
+                    key.getPassword(), key.getIdentityPath() ) );
+            metrics.onHandshake( System.nanoTime() - start );
+            logger.debug( "Opened ssh session " + key + " in " + TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) + " ms" );
+
+            return false;
+        } catch ( IOException ex ) {
+            metrics.onFailedHandshake();
+            removeIfUnused( pooledSession );
+            throw ex;
+        }
+    }
+
+    private boolean isHealthy( PooledSshSession pooledSession ) {
+        Session session = pooledSession.getSession();
+        if ( !session.isConnected() ) {
+            return false;
+        }
+
+        //Do not ping a session that was used a moment ago
+        if ( pooledSession.getIdleMillis() < validationIntervalMillis ) {
+            return true;
+        }
+
+        try {
+            session.sendKeepAliveMsg();
+
+            return session.isConnected();
+        } catch ( Exception ex ) {
+            logger.info( "Ssh session " + pooledSession.getKey() + " failed health check, reconnecting: " + ex.getMessage() );
+
+            return false;
+        }
+    }
+
+    private void releaseSession( PooledSshSession pooledSession ) {
+        synchronized ( pooledSession ) {
+            pooledSession.release();
+            if ( pooledSession.isBroken() && !pooledSession.isLeased() ) {
+                disconnect( pooledSession, false );
+            } else if ( pooledSession.hasSession() && !pooledSession.getSession().isConnected() ) {
+                disconnect( pooledSession, false );
+                removeIfUnused( pooledSession );
+            }
+        }
+    }
+
+    private void evictIdleSessions() {
+        sessions.values().forEach( pooledSession -> {
+            synchronized ( pooledSession ) {
+                if ( !pooledSession.isLeased() && pooledSession.getIdleMillis() > idleTimeoutMillis ) {
+                    disconnect( pooledSession, true );
+                    removeIfUnused( pooledSession );
+                }
+            }
+        } );
+    }
+
+    private void disconnect( PooledSshSession pooledSession, boolean evicted ) {
+        if ( pooledSession.hasSession() ) {
+            pooledSession.getSession().disconnect();
+            pooledSession.setSession( null );
+            metrics.onSessionClosed( evicted );
+        }
+    }
+
+    private void removeIfUnused( PooledSshSession pooledSession ) {
+        if ( !pooledSession.isLeased() ) {
+            pooledSession.markRemoved();
+            sessions.remove( pooledSession.getKey(), pooledSession );
+        }
+    }
+}
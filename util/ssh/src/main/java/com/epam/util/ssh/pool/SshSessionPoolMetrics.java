@@ -0,0 +1,111 @@
+package com.epam.util.ssh.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SshSessionPoolMetrics {
+    private final AtomicLong openSessions = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong handshakes = new AtomicLong();
+    private final AtomicLong failedHandshakes = new AtomicLong();
+    private final AtomicLong handshakeNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong permitWaits = new AtomicLong();
+    private final AtomicLong permitWaitNanos = new AtomicLong();
+    private final AtomicLong maxPermitWaitNanos = new AtomicLong();
+    private final AtomicLong waitingForPermit = new AtomicLong();
+
+    public long getOpenSessions() {
+        return openSessions.get();
+    }
+
+    public long getBorrows() {
+        return borrows.get();
+    }
+
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    public long getHandshakes() {
+        return handshakes.get();
+    }
+
+    public long getFailedHandshakes() {
+        return failedHandshakes.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getReuseRatio() {
+        long borrowCount = borrows.get();
+
+        return borrowCount == 0 ? 0d : (double) reuses.get() / borrowCount;
+    }
+
+    public double getAverageHandshakeMillis() {
+        long handshakeCount = handshakes.get();
+
+        return handshakeCount == 0 ? 0d : handshakeNanos.get() / 1_000_000d / handshakeCount;
+    }
+
+    public long getWaitingForPermit() {
+        return waitingForPermit.get();
+    }
+
+    public double getAveragePermitWaitMillis() {
+        long waitCount = permitWaits.get();
+
+        return waitCount == 0 ? 0d : permitWaitNanos.get() / 1_000_000d / waitCount;
+    }
+
+    public double getMaxPermitWaitMillis() {
+        return maxPermitWaitNanos.get() / 1_000_000d;
+    }
+
+    void onPermitQueued() {
+        waitingForPermit.incrementAndGet();
+    }
+
+    void onPermitDequeued( long waitNanos ) {
+        waitingForPermit.decrementAndGet();
+        permitWaits.incrementAndGet();
+        permitWaitNanos.addAndGet( waitNanos );
+        maxPermitWaitNanos.accumulateAndGet( waitNanos, Math::max );
+    }
+
+    void onBorrow( boolean reused ) {
+        borrows.incrementAndGet();
+        if ( reused ) {
+            reuses.incrementAndGet();
+        }
+    }
+
+    void onHandshake( long nanos ) {
+        handshakes.incrementAndGet();
+        handshakeNanos.addAndGet( nanos );
+        openSessions.incrementAndGet();
+    }
+
+    void onFailedHandshake() {
+        failedHandshakes.incrementAndGet();
+    }
+
+    void onSessionClosed( boolean evicted ) {
+        openSessions.decrementAndGet();
+        if ( evicted ) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format( "open=%d, borrows=%d, reuseRatio=%.2f, handshakes=%d, failedHandshakes=%d, avgHandshakeMs=%.1f, evictions=%d, "
+                        + "waitingForPermit=%d, avgPermitWaitMs=%.1f, maxPermitWaitMs=%.1f",
+                getOpenSessions(), getBorrows(), getReuseRatio(), getHandshakes(), getFailedHandshakes(),
+                getAverageHandshakeMillis(), getEvictions(), getWaitingForPermit(), getAveragePermitWaitMillis(),
+                getMaxPermitWaitMillis() );
+    }
+}